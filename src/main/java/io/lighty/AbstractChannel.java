@@ -1,5 +1,6 @@
 package io.lighty;
 
+import io.lighty.buffer.Buffers;
 import io.lighty.buffer.ByteBufferPool;
 import io.lighty.buffer.RecvByteBufferAllocator;
 import io.lighty.concurrent.EventExecutor;
@@ -10,6 +11,9 @@ import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.nio.channels.ClosedChannelException;
 import java.nio.channels.NotYetConnectedException;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -30,6 +34,10 @@ public abstract class AbstractChannel implements Channel {
     private volatile boolean registered;
     private SocketAddress localAddress;
     private SocketAddress remoteAddress;
+    /**
+     * Reasons reading is suspended for, created on first suspension, accessed from the event loop only
+     */
+    private Set<Object> readSuspensions;
 
     private String strCache;
 
@@ -100,6 +108,11 @@ public abstract class AbstractChannel implements Channel {
         return unsafe().isActive();
     }
 
+    @Override
+    public boolean isWritable() {
+        return unsafe().isWritable();
+    }
+
     @Override
     public ChannelConfig config() {
         return config;
@@ -157,6 +170,47 @@ public abstract class AbstractChannel implements Channel {
         return channelPromise;
     }
 
+    @Override
+    public void suspendRead(Object reason) {
+        if (inOtherEventLoop(() -> suspendRead(reason))) {
+            return;
+        }
+        if (readSuspensions == null) {
+            readSuspensions = Collections.newSetFromMap(new IdentityHashMap<>());
+        }
+        readSuspensions.add(reason);
+        config().setAutoRead(false);
+    }
+
+    @Override
+    public void resumeRead(Object reason) {
+        if (inOtherEventLoop(() -> resumeRead(reason))) {
+            return;
+        }
+        if (readSuspensions != null && readSuspensions.remove(reason) && readSuspensions.isEmpty()) {
+            config().setAutoRead(true);
+            if (isActive()) {
+                read();
+            }
+        }
+    }
+
+    /**
+     * @return whether {@code task} has been handed over to the event loop of the channel instead of running here
+     */
+    private boolean inOtherEventLoop(Runnable task) {
+        EventLoop eventLoop = eventLoop();
+        if (eventLoop == null || eventLoop.inExecutorThread()) {
+            return false;
+        }
+        try {
+            eventLoop.execute(task);
+        } catch (RejectedExecutionException ignore) {
+            // shut down, nothing to read any more
+        }
+        return true;
+    }
+
     @Override
     public ChannelFuture write(Object message, ChannelPromise channelPromise) {
         pipeline().fireMessageSent(message, channelPromise);
@@ -168,6 +222,24 @@ public abstract class AbstractChannel implements Channel {
         return write(message, newChannelPromise());
     }
 
+    @Override
+    public Channel flush() {
+        pipeline().fireFlush();
+        return this;
+    }
+
+    @Override
+    public ChannelFuture writeAndFlush(Object message, ChannelPromise channelPromise) {
+        write(message, channelPromise);
+        flush();
+        return channelPromise;
+    }
+
+    @Override
+    public ChannelFuture writeAndFlush(Object message) {
+        return writeAndFlush(message, newChannelPromise());
+    }
+
     @Override
     public ChannelFuture close() {
         ChannelPromise channelPromise = newChannelPromise();
@@ -270,6 +342,11 @@ public abstract class AbstractChannel implements Channel {
             return new ChannelOutboundBuffer(AbstractChannel.this);
         }
 
+        @Override
+        public boolean isWritable() {
+            return channelOutboundBuffer.isWritable();
+        }
+
         @Override
         public void bind(InetSocketAddress address, ChannelPromise channelPromise) {
             if (!channelPromise.setUncancellable()) {
@@ -337,9 +414,12 @@ public abstract class AbstractChannel implements Channel {
 
         @Override
         public void write(Object message, ChannelPromise channelPromise) {
+            // the outbound buffer owns the message once it is passed to it
+            boolean queued = false;
             try {
                 if (!pendingClose.get()) {
                     if (isActive() && channelPromise.setUncancellable()) {
+                        queued = true;
                         channelOutboundBuffer.addMessage(message, channelPromise);
                         if (config().isAutoFlush()) {
                             writeRequested();
@@ -355,6 +435,10 @@ public abstract class AbstractChannel implements Channel {
             } catch (Throwable e) {
                 channelOutboundBuffer.clear(e);
                 safeSetFailure(channelPromise, e);
+            } finally {
+                if (!queued) {
+                    Buffers.safeRelease(message);
+                }
             }
         }
 
@@ -389,6 +473,9 @@ public abstract class AbstractChannel implements Channel {
         public void unregister() {
             if (registered) {
                 registered = false;
+                if (eventLoop instanceof SingleThreadEventLoop) {
+                    ((SingleThreadEventLoop) eventLoop).channelUnregistered();
+                }
                 pipeline.fireUnregistered();
                 afterUnregister();
             }
@@ -472,6 +559,9 @@ public abstract class AbstractChannel implements Channel {
                         pipeline.fireClose();
                         unregister();
                     });
+                } else if (!wasActive && isRegistered()) {
+                    // e.g. failed connect, still has to leave the event loop
+                    invokeLater(this::unregister);
                 }
             }
         }
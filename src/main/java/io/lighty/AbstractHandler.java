@@ -42,6 +42,11 @@ public abstract class AbstractHandler<I, O> implements Handler<I, O> {
         context.write(message, channelPromise);
     }
 
+    @Override
+    public void onFlush(HandlerContext context) {
+        context.flush();
+    }
+
     @Override
     public void onClosing(HandlerContext context, ChannelPromise channelPromise) {
         context.close(channelPromise);
@@ -57,6 +62,11 @@ public abstract class AbstractHandler<I, O> implements Handler<I, O> {
         context.disconnect(channelPromise);
     }
 
+    @Override
+    public void onWritabilityChanged(HandlerContext context) {
+        context.fireWritabilityChanged();
+    }
+
     @Override
     public void onExceptionCaught(HandlerContext context, Throwable e) {
         context.fireExceptionCaught(e);
@@ -132,8 +132,18 @@ public final class Bootstrap implements Cloneable {
     }
 
     public Channel newChannel() {
+        return newChannel(null);
+    }
+
+    /**
+     * Creates new channel and registers it on the given {@link EventLoop} instead of the one chosen by primary group.
+     * Registering both channels of a proxied session on the same {@link EventLoop} keeps all their events on one thread.
+     *
+     * @param eventLoop {@link EventLoop} to register channel on or {@code null} to let primary group choose one
+     */
+    public Channel newChannel(EventLoop eventLoop) {
         try {
-            return initAndRegisterChannel().sync().channel();
+            return initAndRegisterChannel(eventLoop).sync().channel();
         } catch (InterruptedException e) {
             throw new RuntimeException(e);
         }
@@ -163,8 +173,12 @@ public final class Bootstrap implements Cloneable {
         return newChannel().connect(address);
     }
 
+    public ChannelFuture connect(InetSocketAddress address, EventLoop eventLoop) {
+        return newChannel(eventLoop).connect(address);
+    }
+
     @SuppressWarnings("unchecked")
-    private ChannelFuture initAndRegisterChannel() {
+    private ChannelFuture initAndRegisterChannel(EventLoop eventLoop) {
         Channel channel = channelFactory.createChannel(channelClass);
         if (channel instanceof ServerChannel) {
             for (Handler handler : serverHandlers()) {
@@ -184,7 +198,7 @@ public final class Bootstrap implements Cloneable {
                 channel.pipeline().addLast(handler);
             }
         }
-        return primaryGroup.register(channel);
+        return eventLoop != null ? channel.register(eventLoop) : primaryGroup.register(channel);
     }
 
     @Deprecated
@@ -14,6 +14,12 @@ public interface Channel {
 
     boolean isActive();
 
+    /**
+     * @return whether bytes queued for writing are within the water marks of {@link ChannelConfig}, writes succeed
+     * either way
+     */
+    boolean isWritable();
+
     ChannelConfig config();
 
     Object attach(Object attachment);
@@ -40,10 +46,34 @@ public interface Channel {
 
     ChannelFuture read();
 
+    /**
+     * Turns {@link ChannelConfig#isAutoRead() auto read} off until {@link #resumeRead(Object)} has been called for every
+     * {@code reason} reading was suspended for, so independent throttles do not resume each other's suspension.
+     * May be called from any thread.
+     *
+     * @param reason identity of what suspends reading, e.g. the handler calling it
+     */
+    void suspendRead(Object reason);
+
+    /**
+     * Withdraws {@code reason} given to {@link #suspendRead(Object)}, turns auto read on and reads once no reason is
+     * left. May be called from any thread.
+     */
+    void resumeRead(Object reason);
+
     ChannelFuture write(Object message, ChannelPromise channelPromise);
 
     ChannelFuture write(Object message);
 
+    /**
+     * Writes all messages written so far with as few system calls as possible
+     */
+    Channel flush();
+
+    ChannelFuture writeAndFlush(Object message, ChannelPromise channelPromise);
+
+    ChannelFuture writeAndFlush(Object message);
+
     ChannelFuture close();
 
     ChannelFuture closeFuture();
@@ -64,6 +94,8 @@ public interface Channel {
 
         boolean isActive();
 
+        boolean isWritable();
+
         void bind(InetSocketAddress address, ChannelPromise channelPromise);
 
         void connect(InetSocketAddress address, ChannelPromise channelPromise);
@@ -13,6 +13,10 @@ public interface ChannelConfig {
 
     ChannelConfig setAutoFlush(boolean value);
 
+    boolean isZeroCopyRead();
+
+    ChannelConfig setZeroCopyRead(boolean value);
+
     ByteBufferPool getByteBufferPool();
 
     ChannelConfig setByteBufferPool(ByteBufferPool byteBufferPool);
@@ -21,6 +25,14 @@ public interface ChannelConfig {
 
     ChannelConfig setWriteSpinCount(int writeSpinCount);
 
+    int getWriteBufferHighWaterMark();
+
+    ChannelConfig setWriteBufferHighWaterMark(int writeBufferHighWaterMark);
+
+    int getWriteBufferLowWaterMark();
+
+    ChannelConfig setWriteBufferLowWaterMark(int writeBufferLowWaterMark);
+
     int getReadSpinCount();
 
     ChannelConfig setReadSpinCount(int readSpinCount);
@@ -32,11 +32,28 @@ public final class ChannelOption<T> extends AbstractConstant<ChannelOption<T>> {
     public static final ChannelOption<Integer> SO_BACKLOG = valueOf("SO_BACKLOG");
 
     public static final ChannelOption<Boolean> AUTO_READ = valueOf("AUTO_READ");
+    /**
+     * Whether every write is flushed, otherwise written messages are queued until {@link Channel#flush()}
+     */
     public static final ChannelOption<Boolean> AUTO_FLUSH = valueOf("AUTO_FLUSH");
+    /**
+     * Whether received bytes are passed to the pipeline as {@link io.lighty.buffer.PooledBuffer}s instead of copied
+     * into {@code byte[]}s, handlers then release or pass on every message
+     */
+    public static final ChannelOption<Boolean> ZERO_COPY_READ = valueOf("ZERO_COPY_READ");
 
     public static final ChannelOption<RecvByteBufferAllocator> RECV_BYTE_BUFFER_ALLOCATOR = valueOf("RECV_BYTE_BUFFER_ALLOCATOR");
     public static final ChannelOption<ByteBufferPool> BYTE_BUFFER_POOL = valueOf("BYTE_BUFFER_POOL");
     public static final ChannelOption<Integer> WRITE_SPIN_COUNT = valueOf("WRITE_SPIN_COUNT");
+    /**
+     * Number of bytes queued for writing above which {@link Channel#isWritable()} turns {@code false}
+     */
+    public static final ChannelOption<Integer> WRITE_BUFFER_HIGH_WATER_MARK = valueOf("WRITE_BUFFER_HIGH_WATER_MARK");
+    /**
+     * Number of bytes queued for writing at or below which {@link Channel#isWritable()} turns {@code true} again,
+     * capped by {@link #WRITE_BUFFER_HIGH_WATER_MARK} so both can be set in any order
+     */
+    public static final ChannelOption<Integer> WRITE_BUFFER_LOW_WATER_MARK = valueOf("WRITE_BUFFER_LOW_WATER_MARK");
     public static final ChannelOption<Integer> READ_SPIN_COUNT = valueOf("READ_SPIN_COUNT");
     public static final ChannelOption<Integer> CONNECT_TIMEOUT_MILLIS = valueOf("CONNECT_TIMEOUT_MILLIS");
 
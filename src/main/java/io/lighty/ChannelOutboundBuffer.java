@@ -1,12 +1,32 @@
 package io.lighty;
 
-import java.util.Iterator;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import io.lighty.buffer.Buffers;
+import io.lighty.buffer.CompositeBuffer;
+import io.lighty.buffer.FileRegion;
+import io.lighty.buffer.PooledBuffer;
 
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Messages waiting to be written to a {@link Channel}. <br/>
+ * Messages are kept in a ring of reused entries together with running totals of queued messages and bytes, so size
+ * queries are constant time. The ring grows with bursts of messages and shrinks back once they are written. Accessed from the event loop of the channel only, except for
+ * {@link #isWritable()}. <br/>
+ * Once pending bytes exceed the high water mark of the channel it turns unwritable until they drop to the low water
+ * mark, each change is fired to the pipeline of the active channel.
+ */
 public class ChannelOutboundBuffer implements Iterable<Object> {
 
-    private final Queue<Entry> entries = new ConcurrentLinkedQueue<>();
+    private static final int INITIAL_CAPACITY = 16;
+
+    private Entry[] entries = new Entry[INITIAL_CAPACITY];
+    private int head;
+    private int size;
+    private long pendingBytes;
+    private volatile boolean writable = true;
     private Channel channel;
 
     public ChannelOutboundBuffer(Channel channel) {
@@ -21,80 +41,210 @@ public class ChannelOutboundBuffer implements Iterable<Object> {
     public Iterator<Object> iterator() {
         return new Iterator<Object>() {
 
-            Iterator<Entry> entryIterator = entries.iterator();
+            int i;
 
             @Override
             public boolean hasNext() {
-                return entryIterator.hasNext();
+                return i < size;
             }
 
             @Override
             public Object next() {
-                return entryIterator.next().getMessage();
+                if (i >= size) {
+                    throw new NoSuchElementException();
+                }
+                return entry(i++).getMessage();
             }
         };
     }
 
     public void addMessage(Object message, ChannelPromise channelPromise) {
         message = prepareMessage(message);
-        Entry entry = newEntry();
+        if (size == entries.length) {
+            grow();
+        }
+
+        int index = (head + size) & entries.length - 1;
+        Entry entry = entries[index];
+        if (entry == null) {
+            entries[index] = entry = newEntry();
+        }
         entry.message = message;
         entry.channelPromise = channelPromise;
-        entries.add(entry);
+        entry.pendingBytes = messageSize(message);
+        pendingBytes += entry.pendingBytes;
+        size++;
+
+        if (writable && pendingBytes > channel.config().getWriteBufferHighWaterMark()) {
+            setWritable(false);
+        }
+    }
+
+    /**
+     * Drops the entries a burst grew the ring by, called when it is empty
+     */
+    private void shrink() {
+        entries = Arrays.copyOf(entries, INITIAL_CAPACITY);
+        head = 0;
+    }
+
+    private void grow() {
+        Entry[] grown = new Entry[entries.length << 1];
+        int tail = entries.length - head;
+        System.arraycopy(entries, head, grown, 0, tail);
+        System.arraycopy(entries, 0, grown, tail, head);
+        entries = grown;
+        head = 0;
     }
 
     protected Object prepareMessage(Object message) {
         return message;
     }
 
+    /**
+     * @return number of bytes {@code message} puts on the wire, {@code 0} if unknown
+     */
+    protected long messageSize(Object message) {
+        if (message instanceof ByteBuffer) {
+            return ((ByteBuffer) message).remaining();
+        }
+        if (message instanceof byte[]) {
+            return ((byte[]) message).length;
+        }
+        if (message instanceof PooledBuffer) {
+            return ((PooledBuffer) message).readableBytes();
+        }
+        if (message instanceof CompositeBuffer) {
+            return ((CompositeBuffer) message).readableBytes();
+        }
+        if (message instanceof FileRegion) {
+            FileRegion region = (FileRegion) message;
+            return region.count() - region.transferred();
+        }
+        return 0;
+    }
+
     protected Entry newEntry() {
         return new Entry();
     }
 
+    /**
+     * @return {@code i}-th queued entry counting from the first one
+     */
+    protected Entry entry(int i) {
+        return entries[(head + i) & entries.length - 1];
+    }
+
     public Object current() {
-        Entry entry = entries.peek();
-        if (entry != null) {
-            return entry.message;
-        }
-        return null;
+        return size == 0 ? null : entries[head].message;
     }
 
     public void remove() {
-        Entry entry = entries.poll();
-        if (entry != null) {
+        if (size == 0) {
+            return;
+        }
+        Entry entry = entries[head];
+        ChannelPromise channelPromise = entry.channelPromise;
+        poll(entry);
+        channelPromise.setSuccess();
+    }
+
+    /**
+     * Accounts for {@code bytes} written from the first messages, removes messages which were written completely
+     */
+    public void removeBytes(long bytes) {
+        while (size > 0) {
+            Entry entry = entries[head];
+            if (entry.pendingBytes > bytes) {
+                entry.pendingBytes -= bytes;
+                pendingBytes -= bytes;
+                updateWritable();
+                return;
+            }
+            bytes -= entry.pendingBytes;
+            remove();
+        }
+    }
+
+    private void poll(Entry entry) {
+        try {
             clearEntry(entry);
-            entry.channelPromise.setSuccess();
+        } finally {
+            pendingBytes -= entry.pendingBytes;
+            entry.message = null;
+            entry.channelPromise = null;
+            entry.pendingBytes = 0;
+            head = (head + 1) & entries.length - 1;
+            size--;
+            if (size == 0 && entries.length > INITIAL_CAPACITY) {
+                shrink();
+            }
+            updateWritable();
         }
     }
 
-    protected Queue<Entry> entries() {
-        return entries;
+    private void updateWritable() {
+        if (!writable) {
+            ChannelConfig config = channel.config();
+            if (pendingBytes <= Math.min(config.getWriteBufferLowWaterMark(), config.getWriteBufferHighWaterMark())) {
+                setWritable(true);
+            }
+        }
+    }
+
+    private void setWritable(boolean writable) {
+        this.writable = writable;
+        if (channel.isActive()) {
+            channel.pipeline().fireWritabilityChanged();
+        }
+    }
+
+    /**
+     * @return whether pending bytes are within the water marks of the channel
+     */
+    public boolean isWritable() {
+        return writable;
     }
 
     public boolean isEmpty() {
-        return entries.isEmpty();
+        return size == 0;
     }
 
     public int size() {
-        return entries.size();
+        return size;
+    }
+
+    /**
+     * @return number of entries the ring can hold before it grows
+     */
+    int capacity() {
+        return entries.length;
+    }
+
+    /**
+     * @return number of bytes of queued messages which are still to be written
+     */
+    public long pendingBytes() {
+        return pendingBytes;
     }
 
     public void clear(Throwable e) {
-        while (entries.peek() != null) {
-            Entry entry = entries.poll();
-            clearEntry(entry);
-            entry.channelPromise.setFailure(e);
-            entry.message = null;
-            entry.channelPromise = null;
+        while (size > 0) {
+            Entry entry = entries[head];
+            ChannelPromise channelPromise = entry.channelPromise;
+            poll(entry);
+            channelPromise.setFailure(e);
         }
     }
 
     protected void clearEntry(Entry entry) {
+        Buffers.safeRelease(entry.message);
     }
 
     protected static class Entry {
         private Object message;
         private ChannelPromise channelPromise;
+        private long pendingBytes;
 
         public Object getMessage() {
             return message;
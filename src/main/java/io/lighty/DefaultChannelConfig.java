@@ -10,8 +10,11 @@ public class DefaultChannelConfig implements ChannelConfig {
     private Channel channel;
     private boolean autoRead;
     private boolean autoFlush;
+    private boolean zeroCopyRead;
 
     private int writeSpinCount;
+    private int writeBufferHighWaterMark;
+    private int writeBufferLowWaterMark;
     private int readSpinCount;
     private int connectTimeoutMillis;
 
@@ -27,7 +30,10 @@ public class DefaultChannelConfig implements ChannelConfig {
 
         setOption(ChannelOption.AUTO_READ, true);
         setOption(ChannelOption.AUTO_FLUSH, true);
+        setOption(ChannelOption.ZERO_COPY_READ, false);
         setOption(ChannelOption.WRITE_SPIN_COUNT, 8);
+        setOption(ChannelOption.WRITE_BUFFER_HIGH_WATER_MARK, 64 * 1024);
+        setOption(ChannelOption.WRITE_BUFFER_LOW_WATER_MARK, 32 * 1024);
         setOption(ChannelOption.READ_SPIN_COUNT, 8);
         setOption(ChannelOption.CONNECT_TIMEOUT_MILLIS, 0);
         setOption(ChannelOption.BYTE_BUFFER_POOL, ArrayByteBufferPool.DEFAULT);
@@ -54,6 +60,17 @@ public class DefaultChannelConfig implements ChannelConfig {
         return this;
     }
 
+    @Override
+    public boolean isZeroCopyRead() {
+        return zeroCopyRead;
+    }
+
+    @Override
+    public ChannelConfig setZeroCopyRead(boolean zeroCopyRead) {
+        this.zeroCopyRead = zeroCopyRead;
+        return this;
+    }
+
     @Override
     public boolean isAutoFlush() {
         return autoFlush;
@@ -90,6 +107,34 @@ public class DefaultChannelConfig implements ChannelConfig {
         return this;
     }
 
+    @Override
+    public int getWriteBufferHighWaterMark() {
+        return writeBufferHighWaterMark;
+    }
+
+    @Override
+    public ChannelConfig setWriteBufferHighWaterMark(int writeBufferHighWaterMark) {
+        if (writeBufferHighWaterMark < 0) {
+            throw new IllegalArgumentException("writeBufferHighWaterMark must be >= 0");
+        }
+        this.writeBufferHighWaterMark = writeBufferHighWaterMark;
+        return this;
+    }
+
+    @Override
+    public int getWriteBufferLowWaterMark() {
+        return writeBufferLowWaterMark;
+    }
+
+    @Override
+    public ChannelConfig setWriteBufferLowWaterMark(int writeBufferLowWaterMark) {
+        if (writeBufferLowWaterMark < 0) {
+            throw new IllegalArgumentException("writeBufferLowWaterMark must be >= 0");
+        }
+        this.writeBufferLowWaterMark = writeBufferLowWaterMark;
+        return this;
+    }
+
     @Override
     public int getReadSpinCount() {
         return readSpinCount;
@@ -133,6 +178,8 @@ public class DefaultChannelConfig implements ChannelConfig {
                 setAutoRead((Boolean) value);
             } else if (channelOption == ChannelOption.AUTO_FLUSH) {
                 setAutoFlush((Boolean) value);
+            } else if (channelOption == ChannelOption.ZERO_COPY_READ) {
+                setZeroCopyRead((Boolean) value);
             } else if (channelOption == ChannelOption.BYTE_BUFFER_POOL) {
                 setByteBufferPool((ByteBufferPool) value);
             } else if (channelOption == ChannelOption.RECV_BYTE_BUFFER_ALLOCATOR) {
@@ -141,6 +188,10 @@ public class DefaultChannelConfig implements ChannelConfig {
                 setReadSpinCount((Integer) value);
             } else if (channelOption == ChannelOption.WRITE_SPIN_COUNT) {
                 setWriteSpinCount((Integer) value);
+            } else if (channelOption == ChannelOption.WRITE_BUFFER_HIGH_WATER_MARK) {
+                setWriteBufferHighWaterMark((Integer) value);
+            } else if (channelOption == ChannelOption.WRITE_BUFFER_LOW_WATER_MARK) {
+                setWriteBufferLowWaterMark((Integer) value);
             } else if (channelOption == ChannelOption.CONNECT_TIMEOUT_MILLIS) {
                 setConnectTimeoutMillis((Integer) value);
             } else {
@@ -168,6 +219,8 @@ public class DefaultChannelConfig implements ChannelConfig {
                 result = isAutoRead();
             } else if (channelOption == ChannelOption.AUTO_FLUSH) {
                 result = isAutoFlush();
+            } else if (channelOption == ChannelOption.ZERO_COPY_READ) {
+                result = isZeroCopyRead();
             } else if (channelOption == ChannelOption.BYTE_BUFFER_POOL) {
                 result = getByteBufferPool();
             } else if (channelOption == ChannelOption.RECV_BYTE_BUFFER_ALLOCATOR) {
@@ -176,6 +229,10 @@ public class DefaultChannelConfig implements ChannelConfig {
                 result = getReadSpinCount();
             } else if (channelOption == ChannelOption.WRITE_SPIN_COUNT) {
                 result = getWriteSpinCount();
+            } else if (channelOption == ChannelOption.WRITE_BUFFER_HIGH_WATER_MARK) {
+                result = getWriteBufferHighWaterMark();
+            } else if (channelOption == ChannelOption.WRITE_BUFFER_LOW_WATER_MARK) {
+                result = getWriteBufferLowWaterMark();
             } else if (channelOption == ChannelOption.CONNECT_TIMEOUT_MILLIS) {
                 result = getConnectTimeoutMillis();
             }
@@ -7,6 +7,11 @@ public interface EventLoop extends EventExecutor {
 
     HandlerContextInvoker asInvoker();
 
+    /**
+     * @return number of channels registered or being registered on this event loop
+     */
+    int registeredChannels();
+
     @Override
     EventLoopGroup parent();
 
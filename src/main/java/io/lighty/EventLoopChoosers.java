@@ -0,0 +1,36 @@
+package io.lighty;
+
+import io.lighty.concurrent.EventExecutor;
+import io.lighty.concurrent.ExecutorChooserFactory;
+import io.lighty.concurrent.ExecutorChoosers;
+
+import java.util.function.ToIntFunction;
+
+/**
+ * Load-aware {@link ExecutorChooserFactory}s for {@link MultiThreadEventLoopGroup}, which use the chosen
+ * {@link EventLoop} for {@link EventLoopGroup#register(Channel)}.
+ */
+public final class EventLoopChoosers {
+
+    private static final ToIntFunction<EventExecutor> REGISTERED_CHANNELS = e -> ((EventLoop) e).registeredChannels();
+
+    private static final ToIntFunction<EventExecutor> LOAD = e -> ((EventLoop) e).registeredChannels() + ExecutorChoosers.pendingTasks(e);
+
+    private EventLoopChoosers() {
+    }
+
+    /**
+     * @return factory of choosers which pick the event loop with the fewest registered channels
+     */
+    public static ExecutorChooserFactory leastChannels() {
+        return ExecutorChoosers.leastLoaded(REGISTERED_CHANNELS);
+    }
+
+    /**
+     * @return factory of choosers which pick the less loaded of two random event loops,
+     * the load being registered channels plus tasks waiting in the task queue
+     */
+    public static ExecutorChooserFactory powerOfTwoChoices() {
+        return ExecutorChoosers.powerOfTwoChoices(LOAD);
+    }
+}
@@ -5,7 +5,9 @@ import io.lighty.pipeline.HandlerContext;
 /**
  * Every {@link Channel} has own instance of {@link io.lighty.pipeline.Pipeline} which intercepts events occurred on session. <br/>
  * Each {@link Handler} processed in {@link Handler}'s thread. <br/>
- * Inbound events processed from first to last filter. Outbound events processed from last to first.
+ * Inbound events processed from first to last filter. Outbound events processed from last to first. <br/>
+ * A {@link io.lighty.buffer.ReferenceCounted} message is owned by the handler it is passed to. The handler either
+ * passes it on or releases it once done with it.
  *
  * @param <I> Type of inbound high-level message. First filter in {@link io.lighty.pipeline.Pipeline} receives array of bytes.
  * @param <O> Type of outbound high-level message. Last filter in {@link io.lighty.pipeline.Pipeline} should return array of bytes.
@@ -70,6 +72,13 @@ public interface Handler<I, O> {
      */
     void onMessageSent(HandlerContext context, O message, ChannelPromise channelPromise);
 
+    /**
+     * Called when messages sent so far are requested to be written
+     *
+     * @param context {@link io.lighty.pipeline.HandlerContext}
+     */
+    void onFlush(HandlerContext context);
+
     /**
      * Called when {@link Channel} is requested to close
      *
@@ -91,6 +100,13 @@ public interface Handler<I, O> {
      */
     void onDisconnect(HandlerContext context, ChannelPromise channelPromise);
 
+    /**
+     * Called when {@link Channel#isWritable()} changes
+     *
+     * @param context {@link io.lighty.pipeline.HandlerContext}
+     */
+    void onWritabilityChanged(HandlerContext context);
+
     /**
      * Called when error occurs
      *
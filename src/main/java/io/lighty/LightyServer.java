@@ -20,13 +20,21 @@ public final class LightyServer {
     private final Bootstrap serverBootstrap;
 
     public LightyServer(InetSocketAddress from, InetSocketAddress to) {
+        this(from, to, true);
+    }
+
+    /**
+     * @param sameEventLoop whether to register outbound channel on the event loop of the accepted channel
+     *                      instead of one chosen from client group
+     */
+    public LightyServer(InetSocketAddress from, InetSocketAddress to, boolean sameEventLoop) {
         this.from = from;
         serverBootstrap = newBootstrap(NioServerSocketChannel.class, SERVER_GROUP);
         serverBootstrap.addChildHandler(new ChannelInitializer() {
             @Override
             protected void initialize(Channel channel) {
                 channel.config().setAutoRead(false);
-                channel.pipeline().addLast(new ChannelConnector(to, newBootstrap(NioSocketChannel.class, CLIENT_GROUP)));
+                channel.pipeline().addLast(new ChannelConnector(to, newBootstrap(NioSocketChannel.class, CLIENT_GROUP), sameEventLoop));
             }
         });
     }
@@ -34,6 +42,7 @@ public final class LightyServer {
     private static Bootstrap newBootstrap(Class<? extends Channel> channelClass, NioEventLoopGroup eventLoopGroup) {
         return new Bootstrap().channelClass(channelClass)
                 .childOption(ChannelOption.CONNECT_TIMEOUT_MILLIS, 1000)
+                .childOption(ChannelOption.ZERO_COPY_READ, true)
                 .group(eventLoopGroup);
     }
 
@@ -45,16 +54,20 @@ public final class LightyServer {
 
         private final InetSocketAddress to;
         private final Bootstrap clientFactory;
+        private final boolean sameEventLoop;
 
-        ChannelConnector(InetSocketAddress to, Bootstrap clientFactory) {
+        ChannelConnector(InetSocketAddress to, Bootstrap clientFactory, boolean sameEventLoop) {
             this.to = to;
             this.clientFactory = clientFactory;
+            this.sameEventLoop = sameEventLoop;
         }
 
         @Override
         public void onOpen(HandlerContext context) {
             Channel channel = context.channel();
-            Channel ch = clientFactory.newChannel();
+            Channel ch = clientFactory.newChannel(sameEventLoop ? channel.eventLoop() : null);
+            // received buffers are forwarded as they are and released once written to the peer
+            ch.config().setZeroCopyRead(true);
             ch.pipeline().addLast(new ForwardingProxyHandler(channel));
             channel.pipeline().addLast(new ForwardingProxyHandler(ch));
             ch.connect(to).addListener(future -> {
@@ -81,6 +94,19 @@ public final class LightyServer {
             ch.write(message);
         }
 
+        /**
+         * Stops reading from the peer while this channel can not keep up with what the peer sends
+         */
+        @Override
+        public void onWritabilityChanged(HandlerContext context) {
+            if (context.channel().isWritable()) {
+                ch.resumeRead(this);
+            } else {
+                ch.suspendRead(this);
+            }
+            context.fireWritabilityChanged();
+        }
+
         @Override
         public void onDisconnect(HandlerContext context, ChannelPromise channelPromise) {
             ch.close();
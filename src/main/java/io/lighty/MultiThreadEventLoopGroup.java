@@ -1,5 +1,6 @@
 package io.lighty;
 
+import io.lighty.concurrent.EventExecutor;
 import io.lighty.concurrent.MultiThreadEventExecutorGroup;
 import io.lighty.pipeline.HandlerContextInvoker;
 
@@ -65,6 +66,15 @@ public abstract class MultiThreadEventLoopGroup extends MultiThreadEventExecutor
         return channel.unregister();
     }
 
+    @Override
+    public int registeredChannels() {
+        int registeredChannels = 0;
+        for (EventExecutor e : children()) {
+            registeredChannels += ((EventLoop) e).registeredChannels();
+        }
+        return registeredChannels;
+    }
+
     @Override
     public HandlerContextInvoker asInvoker() {
         throw new UnsupportedOperationException();
@@ -1,18 +1,23 @@
 package io.lighty;
 
+import io.lighty.concurrent.DelayedTaskQueue;
 import io.lighty.concurrent.EventExecutorGroup;
+import io.lighty.concurrent.MpscChunkedArrayQueue;
+import io.lighty.concurrent.RejectedTaskHandler;
 import io.lighty.concurrent.SingleThreadEventExecutor;
 import io.lighty.pipeline.DefaultHandlerContextInvoker;
 import io.lighty.pipeline.HandlerContextInvoker;
 
 import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public abstract class SingleThreadEventLoop extends SingleThreadEventExecutor implements EventLoop {
 
     private final HandlerContextInvoker invoker = new DefaultHandlerContextInvoker(this);
+    private final AtomicInteger registeredChannels = new AtomicInteger();
 
     protected SingleThreadEventLoop(EventExecutorGroup parent, boolean wakeUpForTask) {
         super(parent, wakeUpForTask);
@@ -26,6 +31,16 @@ public abstract class SingleThreadEventLoop extends SingleThreadEventExecutor im
         super(parent, wakeUpForTask, executor);
     }
 
+    protected SingleThreadEventLoop(EventExecutorGroup parent, boolean wakeUpForTask, Executor executor, int maxPendingTasks,
+                                    RejectedTaskHandler rejectedTaskHandler) {
+        super(parent, wakeUpForTask, executor, maxPendingTasks, rejectedTaskHandler);
+    }
+
+    protected SingleThreadEventLoop(EventExecutorGroup parent, boolean wakeUpForTask, Executor executor, int maxPendingTasks,
+                                    RejectedTaskHandler rejectedTaskHandler, DelayedTaskQueue delayedTaskQueue) {
+        super(parent, wakeUpForTask, executor, maxPendingTasks, rejectedTaskHandler, delayedTaskQueue);
+    }
+
     @Override
     public HandlerContextInvoker asInvoker() {
         return invoker;
@@ -46,15 +61,22 @@ public abstract class SingleThreadEventLoop extends SingleThreadEventExecutor im
         if (channelPromise == null) {
             throw new IllegalArgumentException("channelPromise");
         }
+        // counted before the registration task runs, so choosers see a burst of registrations immediately
+        registeredChannels.incrementAndGet();
         if (inExecutorThread()) {
             register0(channelPromise);
         } else {
-            execute(new Runnable() {
-                @Override
-                public void run() {
-                    register0(channelPromise);
-                }
-            });
+            try {
+                execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        register0(channelPromise);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                registeredChannels.decrementAndGet();
+                throw e;
+            }
         }
         return channelPromise;
     }
@@ -68,6 +90,15 @@ public abstract class SingleThreadEventLoop extends SingleThreadEventExecutor im
         }
     }
 
+    void channelUnregistered() {
+        registeredChannels.decrementAndGet();
+    }
+
+    @Override
+    public int registeredChannels() {
+        return registeredChannels.get();
+    }
+
     @Override
     public ChannelFuture unregister(final ChannelPromise channelPromise) {
         if (channelPromise == null) {
@@ -96,7 +127,7 @@ public abstract class SingleThreadEventLoop extends SingleThreadEventExecutor im
     }
 
     @Override
-    protected Queue<Runnable> newTaskQueue() {
-        return new ConcurrentLinkedQueue<>();
+    protected Queue<Runnable> newTaskQueue(int maxPendingTasks) {
+        return new MpscChunkedArrayQueue<>(maxPendingTasks);
     }
 }
@@ -0,0 +1,79 @@
+package io.lighty.buffer;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * Base of {@link ReferenceCounted} objects which counts references and calls {@link #deallocate()} once the count
+ * drops to zero.
+ */
+public abstract class AbstractReferenceCounted implements ReferenceCounted {
+
+    private static final AtomicIntegerFieldUpdater<AbstractReferenceCounted> REF_CNT_UPDATER = AtomicIntegerFieldUpdater.newUpdater(AbstractReferenceCounted.class, "refCnt");
+
+    private volatile int refCnt = 1;
+
+    @Override
+    public int refCnt() {
+        return refCnt;
+    }
+
+    @Override
+    public ReferenceCounted retain() {
+        return retain(1);
+    }
+
+    @Override
+    public ReferenceCounted retain(int increment) {
+        if (increment <= 0) {
+            throw new IllegalArgumentException("increment must be > 0");
+        }
+        for (; ; ) {
+            int refCnt = this.refCnt;
+            if (refCnt == 0 || refCnt > Integer.MAX_VALUE - increment) {
+                throw new IllegalStateException("refCnt: " + refCnt + ", increment: " + increment);
+            }
+            if (REF_CNT_UPDATER.compareAndSet(this, refCnt, refCnt + increment)) {
+                return this;
+            }
+        }
+    }
+
+    @Override
+    public boolean release() {
+        return release(1);
+    }
+
+    @Override
+    public boolean release(int decrement) {
+        if (decrement <= 0) {
+            throw new IllegalArgumentException("decrement must be > 0");
+        }
+        for (; ; ) {
+            int refCnt = this.refCnt;
+            if (refCnt < decrement) {
+                throw new IllegalStateException("refCnt: " + refCnt + ", decrement: " + decrement);
+            }
+            if (REF_CNT_UPDATER.compareAndSet(this, refCnt, refCnt - decrement)) {
+                if (refCnt == decrement) {
+                    deallocate();
+                    return true;
+                }
+                return false;
+            }
+        }
+    }
+
+    /**
+     * @throws IllegalStateException if already deallocated
+     */
+    protected final void ensureAccessible() {
+        if (refCnt == 0) {
+            throw new IllegalStateException("refCnt: 0");
+        }
+    }
+
+    /**
+     * Gives back resources once the reference count dropped to zero
+     */
+    protected abstract void deallocate();
+}
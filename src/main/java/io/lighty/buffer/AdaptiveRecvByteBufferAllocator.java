@@ -129,6 +129,16 @@ public class AdaptiveRecvByteBufferAllocator implements RecvByteBufferAllocator
             return alloc.acquire(nextReceiveBufferSize, true);
         }
 
+        @Override
+        public void release(ByteBufferPool alloc, ByteBuffer buffer) {
+            alloc.release(buffer);
+        }
+
+        @Override
+        public ByteBuffer detach(ByteBufferPool alloc, ByteBuffer buffer) {
+            return buffer;
+        }
+
         public int guess() {
             return nextReceiveBufferSize;
         }
@@ -0,0 +1,381 @@
+package io.lighty.buffer;
+
+import io.lighty.concurrent.SingleThreadEventExecutor;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool which carves buffers out of large chunks instead of allocating each of them. <br/>
+ * Sizes are rounded up to a power of two size class. Buffers of a class are cut from the current chunk once and then
+ * recycled through a stack of free buffers of that class. Event executor threads have their own arena with their own
+ * chunk and keep up to {@code cacheSize} free buffers per class, the surplus goes to the shared arena which serves
+ * other threads under a lock. <br/>
+ * Only buffers cut by the pool are taken back, other released buffers are ignored: heap buffers must share the array
+ * of a chunk and direct buffers must lie within the memory of one. Each acquired buffer must be released at most once
+ * and slices or duplicates of it not at all. At most {@code maxChunks} chunks are allocated, once they are used up
+ * requests are served by new unpooled buffers. <br/>
+ * Buffers are never coalesced and chunks are neither trimmed nor given back while the pool is in use, so the pool holds
+ * on to the peak amount of memory in use, up to {@code maxChunks} chunks, until {@link #clear()}. It has no statistics
+ * either. It suits a steady load of a few sizes and can be used as {@code ChannelOption.BYTE_BUFFER_POOL}. Heap
+ * buffers are slices of their chunk, so {@link ByteBuffer#arrayOffset()} must be added to indexes into
+ * {@link ByteBuffer#array()}. <br/>
+ * Requests larger than {@code maxSize} are not pooled, nor are direct buffers if their address can not be read.
+ */
+public class ArenaByteBufferPool implements ByteBufferPool {
+
+    private final static int DEFAULT_MIN_SIZE = 64;
+    private final static int DEFAULT_MAX_SIZE = 65536;
+    private final static int DEFAULT_CHUNK_SIZE = Integer.getInteger("io.lighty.buffer.arena.chunkSize", 4 * 1024 * 1024);
+    private final static int DEFAULT_CACHE_SIZE = 64;
+    private final static int DEFAULT_MAX_CHUNKS = Integer.getInteger("io.lighty.buffer.arena.maxChunks", 64);
+
+    private final int minSize;
+    private final int maxSize;
+    private final int minShift;
+    private final int chunkSize;
+    private final int cacheSize;
+    private final int classesCount;
+    private final int maxChunks;
+    private final AtomicInteger chunks = new AtomicInteger();
+    /**
+     * Arrays of heap chunks and addresses of direct chunks of the current generation, copied on write under the pool
+     * lock
+     */
+    private volatile byte[][] heapChunks = new byte[0][];
+    private volatile long[] directChunks = new long[0];
+    /**
+     * Incremented by {@link #clear()}, arenas do not cut from chunks of previous generations
+     */
+    private volatile int generation;
+    private final Arena sharedHeapArena;
+    private final Arena sharedDirectArena;
+    private final ThreadLocal<Arena[]> threadArenas;
+
+    public ArenaByteBufferPool() {
+        this(DEFAULT_MIN_SIZE, DEFAULT_MAX_SIZE, DEFAULT_CHUNK_SIZE, DEFAULT_CACHE_SIZE, DEFAULT_MAX_CHUNKS);
+    }
+
+    /**
+     * @param minSize   the smallest size class, a power of two
+     * @param maxSize   the largest size class, a power of two
+     * @param chunkSize size of the chunks buffers are cut from, a multiple of {@code maxSize}
+     * @param cacheSize number of free buffers per size class kept by the arena of an event executor thread
+     */
+    public ArenaByteBufferPool(int minSize, int maxSize, int chunkSize, int cacheSize) {
+        this(minSize, maxSize, chunkSize, cacheSize, DEFAULT_MAX_CHUNKS);
+    }
+
+    /**
+     * @param minSize   the smallest size class, a power of two
+     * @param maxSize   the largest size class, a power of two
+     * @param chunkSize size of the chunks buffers are cut from, a multiple of {@code maxSize}
+     * @param cacheSize number of free buffers per size class kept by the arena of an event executor thread
+     * @param maxChunks the maximum number of chunks all arenas together allocate
+     */
+    public ArenaByteBufferPool(int minSize, int maxSize, int chunkSize, int cacheSize, int maxChunks) {
+        if (minSize < 1 || (minSize & minSize - 1) != 0) {
+            throw new IllegalArgumentException("minSize must be a power of two");
+        }
+        if (maxSize < minSize || (maxSize & maxSize - 1) != 0) {
+            throw new IllegalArgumentException("maxSize must be a power of two >= minSize");
+        }
+        if (chunkSize < maxSize || chunkSize % maxSize != 0) {
+            throw new IllegalArgumentException("chunkSize must be a multiple of maxSize");
+        }
+        if (cacheSize < 2) {
+            throw new IllegalArgumentException("cacheSize must be > 1");
+        }
+        if (maxChunks < 1) {
+            throw new IllegalArgumentException("maxChunks must be > 0");
+        }
+
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.minShift = Integer.numberOfTrailingZeros(minSize);
+        this.chunkSize = chunkSize;
+        this.cacheSize = cacheSize;
+        this.classesCount = Integer.numberOfTrailingZeros(maxSize) - minShift + 1;
+        this.maxChunks = maxChunks;
+
+        sharedHeapArena = new Arena(false, null);
+        sharedDirectArena = new Arena(true, null);
+        threadArenas = ThreadLocal.withInitial(this::newThreadArenas);
+    }
+
+    private Arena[] newThreadArenas() {
+        SingleThreadEventExecutor executor = SingleThreadEventExecutor.currentExecutor();
+        if (executor == null) {
+            return null;
+        }
+
+        Arena[] arenas = {new Arena(false, sharedHeapArena), new Arena(true, sharedDirectArena)};
+        executor.terminationFuture().addListener(future -> {
+            for (Arena arena : arenas) {
+                arena.spillAll();
+            }
+        });
+        return arenas;
+    }
+
+    @Override
+    public ByteBuffer acquire(int size, boolean direct) {
+        if (size > maxSize || direct && !Buffers.canReadAddress()) {
+            return direct ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
+        }
+
+        int c = sizeClass(size);
+        Arena[] arenas = threadArenas.get();
+        if (arenas != null) {
+            return arenas[direct ? 1 : 0].allocate(c);
+        }
+
+        Arena arena = direct ? sharedDirectArena : sharedHeapArena;
+        synchronized (arena) {
+            return arena.allocate(c);
+        }
+    }
+
+    @Override
+    public void release(ByteBuffer buffer) {
+        if (buffer == null) {
+            return;
+        }
+
+        if (!isCarved(buffer)) {
+            // not ours or cut from a chunk dropped by clear, left to the garbage collector
+            return;
+        }
+
+        buffer.clear();
+        int c = sizeClass(buffer.capacity());
+        Arena[] arenas = threadArenas.get();
+        if (arenas != null) {
+            arenas[buffer.isDirect() ? 1 : 0].free(c, buffer);
+            return;
+        }
+
+        Arena arena = buffer.isDirect() ? sharedDirectArena : sharedHeapArena;
+        synchronized (arena) {
+            arena.free(c, buffer);
+        }
+    }
+
+    /**
+     * Drops all chunks and free buffers of the shared arenas and of the arenas of the calling thread. Buffers cut from
+     * dropped chunks are no longer taken back, memory of a chunk is given back once no buffer cut from it is referenced.
+     */
+    @Override
+    public void clear() {
+        synchronized (this) {
+            generation++;
+            heapChunks = new byte[0][];
+            directChunks = new long[0];
+        }
+        chunks.set(0);
+        synchronized (sharedHeapArena) {
+            sharedHeapArena.clear();
+        }
+        synchronized (sharedDirectArena) {
+            sharedDirectArena.clear();
+        }
+
+        Arena[] arenas = threadArenas.get();
+        if (arenas != null) {
+            for (Arena arena : arenas) {
+                arena.clear();
+            }
+        }
+    }
+
+    /**
+     * @return number of chunks allocated since the last {@link #clear()}
+     */
+    public int getChunks() {
+        return chunks.get();
+    }
+
+    private boolean isCarved(ByteBuffer buffer) {
+        int capacity = buffer.capacity();
+        if (capacity < minSize || capacity > maxSize || (capacity & capacity - 1) != 0) {
+            return false;
+        }
+        if (buffer.isDirect()) {
+            long address = Buffers.address(buffer);
+            for (long chunk : directChunks) {
+                if (address >= chunk && address < chunk + chunkSize) {
+                    return true;
+                }
+            }
+        } else if (buffer.hasArray()) {
+            byte[] array = buffer.array();
+            for (byte[] chunk : heapChunks) {
+                if (array == chunk) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Makes buffers cut from {@code chunk} taken back, unless {@link #clear()} was called since {@code generation}
+     */
+    private synchronized void addChunk(ByteBuffer chunk, int generation) {
+        if (generation != this.generation) {
+            return;
+        }
+        if (chunk.isDirect()) {
+            long[] chunks = Arrays.copyOf(directChunks, directChunks.length + 1);
+            chunks[chunks.length - 1] = Buffers.address(chunk);
+            directChunks = chunks;
+        } else {
+            byte[][] chunks = Arrays.copyOf(heapChunks, heapChunks.length + 1);
+            chunks[chunks.length - 1] = chunk.array();
+            heapChunks = chunks;
+        }
+    }
+
+    private int sizeClass(int size) {
+        if (size <= minSize) {
+            return 0;
+        }
+        return 32 - Integer.numberOfLeadingZeros(size - 1) - minShift;
+    }
+
+    private final class Arena {
+        private final boolean direct;
+        /**
+         * Arena to spill to and refill from, {@code null} for shared arenas
+         */
+        private final Arena shared;
+        private final ByteBuffer[][] free;
+        private final int[] freeCount;
+
+        private ByteBuffer chunk;
+        private int chunkGeneration;
+        private int chunkOffset;
+
+        Arena(boolean direct, Arena shared) {
+            this.direct = direct;
+            this.shared = shared;
+            free = new ByteBuffer[classesCount][cacheSize];
+            freeCount = new int[classesCount];
+        }
+
+        ByteBuffer allocate(int c) {
+            if (freeCount[c] == 0 && (shared == null || !refill(c))) {
+                return carve(c);
+            }
+            ByteBuffer buffer = free[c][--freeCount[c]];
+            free[c][freeCount[c]] = null;
+            return buffer;
+        }
+
+        private boolean refill(int c) {
+            synchronized (shared) {
+                int count = Math.min(shared.freeCount[c], cacheSize >> 1);
+                if (count == 0) {
+                    return false;
+                }
+                shared.freeCount[c] -= count;
+                System.arraycopy(shared.free[c], shared.freeCount[c], free[c], 0, count);
+                Arrays.fill(shared.free[c], shared.freeCount[c], shared.freeCount[c] + count, null);
+                freeCount[c] = count;
+                return true;
+            }
+        }
+
+        private ByteBuffer carve(int c) {
+            int size = minSize << c;
+            if (chunk != null && chunkGeneration != generation) {
+                // dropped by clear
+                chunk = null;
+            }
+            if (chunk == null || chunkOffset + size > chunkSize) {
+                recycleChunkTail();
+                chunk = null;
+                if (!reserveChunk()) {
+                    return direct ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
+                }
+                chunk = direct ? ByteBuffer.allocateDirect(chunkSize) : ByteBuffer.allocate(chunkSize);
+                chunkGeneration = generation;
+                chunkOffset = 0;
+                addChunk(chunk, chunkGeneration);
+            }
+            return slice(size);
+        }
+
+        private boolean reserveChunk() {
+            for (; ; ) {
+                int count = chunks.get();
+                if (count >= maxChunks) {
+                    return false;
+                }
+                if (chunks.compareAndSet(count, count + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        private ByteBuffer slice(int size) {
+            ByteBuffer duplicate = chunk.duplicate();
+            duplicate.limit(chunkOffset + size);
+            duplicate.position(chunkOffset);
+            chunkOffset += size;
+            return duplicate.slice();
+        }
+
+        /**
+         * Cuts what is left of the current chunk into buffers of the largest classes which fit
+         */
+        private void recycleChunkTail() {
+            if (chunk == null) {
+                return;
+            }
+            for (int c = classesCount - 1; c >= 0; c--) {
+                int size = minSize << c;
+                while (chunkSize - chunkOffset >= size) {
+                    free(c, slice(size));
+                }
+            }
+        }
+
+        void free(int c, ByteBuffer buffer) {
+            if (freeCount[c] == free[c].length) {
+                if (shared != null) {
+                    spill(c, cacheSize >> 1);
+                } else {
+                    free[c] = Arrays.copyOf(free[c], free[c].length << 1);
+                }
+            }
+            free[c][freeCount[c]++] = buffer;
+        }
+
+        private void spill(int c, int count) {
+            synchronized (shared) {
+                for (int i = 0; i < count; i++) {
+                    ByteBuffer buffer = free[c][--freeCount[c]];
+                    free[c][freeCount[c]] = null;
+                    shared.free(c, buffer);
+                }
+            }
+        }
+
+        void spillAll() {
+            for (int c = 0; c < classesCount; c++) {
+                spill(c, freeCount[c]);
+            }
+        }
+
+        void clear() {
+            for (int c = 0; c < classesCount; c++) {
+                Arrays.fill(free[c], null);
+                freeCount[c] = 0;
+            }
+            chunk = null;
+            chunkOffset = 0;
+        }
+    }
+}
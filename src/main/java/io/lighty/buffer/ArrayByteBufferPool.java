@@ -1,101 +1,782 @@
 package io.lighty.buffer;
 
+import io.lighty.concurrent.SingleThreadEventExecutor;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Pool of buffers bucketed by size class. <br/>
+ * By default small sizes are spaced by 16 bytes up to 512 bytes, medium sizes by a quarter of their power of two up to
+ * 64 KB and huge sizes by powers of two up to 4 MB, so a request wastes at most a quarter of the buffer below 64 KB.
+ * Huge buffers are not cached per thread and are retained up to {@link #setMaxLargeRetainedBytes(long)} together.
+ * <br/>
+ * Event executor threads have a private cache of buffers per bucket in front of the shared buckets, they acquire and
+ * release without synchronization and move buffers to and from the shared buckets in batches of half the cache size.
+ * <br/>
+ * Buckets retain at most {@link #setMaxBucketRetainedBytes(long)} each and {@link #setMaxRetainedBytes(long)} together,
+ * buffers released beyond that are dropped. Thread caches are counted against these limits too, they reserve bytes
+ * in batches of half the cache size and give back what they do not use when trimmed. Every event executor thread using
+ * the pool periodically trims its cache and the shared buckets, dropping cached buffers not acquired from since the
+ * previous trim and shared buffers of buckets not acquired from for at least the trim interval.
+ * Dropped direct buffers are {@link Buffers#free(ByteBuffer) freed} right away. <br/>
+ * Hits, misses and dropped buffers are counted with {@link LongAdder}s, see {@link #stats()} and
+ * {@link #registerMBean(String)}.
+ */
 public class ArrayByteBufferPool implements ByteBufferPool {
 
-    public final static ByteBufferPool DEFAULT = new ArrayByteBufferPool();
+    private final static int SMALL_STEP = 16;
+    private final static int SMALL_MAX_SIZE = 512;
+    private final static int MEDIUM_STEPS_PER_DOUBLING = 4;
+    private final static int LARGE_THRESHOLD = 65536;
+    private final static int DEFAULT_MAX_SIZE = Integer.getInteger("io.lighty.buffer.maxPooledSize", 4 * 1024 * 1024);
+    private final static int DEFAULT_THREAD_CACHE_SIZE = Math.max(0, Integer.getInteger("io.lighty.buffer.threadCacheSize", 64));
+    private final static long DEFAULT_MAX_RETAINED_BYTES = Long.getLong("io.lighty.buffer.maxRetainedBytes", Long.MAX_VALUE);
+    private final static long DEFAULT_MAX_BUCKET_RETAINED_BYTES = Long.getLong("io.lighty.buffer.maxBucketRetainedBytes", Long.MAX_VALUE);
+    private final static long DEFAULT_MAX_LARGE_RETAINED_BYTES = Long.getLong("io.lighty.buffer.maxLargeRetainedBytes", 64L * 1024 * 1024);
+    private final static long DEFAULT_TRIM_INTERVAL_MILLIS = Long.getLong("io.lighty.buffer.trimIntervalMillis", 30000);
 
-    private final static int DEFAULT_MIN_SIZE = 64;
-    private final static int DEFAULT_STEP_SIZE = 1024;
-    private final static int DEFAULT_MAX_SIZE = 65536;
+    public final static ByteBufferPool DEFAULT = new ArrayByteBufferPool();
 
     private final int minSize;
+    private final int maxSize;
+    private final int[] sizes;
+    /**
+     * Spacing of linear sizes, {@code 0} for geometric sizes
+     */
+    private final int increment;
+    /**
+     * Bucket index of geometric sizes up to {@link #LARGE_THRESHOLD} by {@code (size - 1) / SMALL_STEP}
+     */
+    private final int[] sizeTable;
     private final Bucket[] directBuckets;
     private final Bucket[] heapBuckets;
-    private final int increment;
+    private final int threadCacheSize;
+    private final ThreadLocal<ThreadCache> threadCache;
+    /**
+     * Caches of live event executor threads, read by {@link #stats()}
+     */
+    private final Set<ThreadCache> threadCaches = ConcurrentHashMap.newKeySet();
+    private final AtomicLong retainedBytes = new AtomicLong();
+    private final AtomicLong largeRetainedBytes = new AtomicLong();
+    private final LongAdder unpooledAllocations = new LongAdder();
+    private final LongAdder unmatchedReleases = new LongAdder();
+    private final LongAdder rejectedReleases = new LongAdder();
+    private final LongAdder trimmedBuffers = new LongAdder();
     private int bucketsCount;
 
+    private volatile long maxRetainedBytes = DEFAULT_MAX_RETAINED_BYTES;
+    private volatile long maxBucketRetainedBytes = DEFAULT_MAX_BUCKET_RETAINED_BYTES;
+    private volatile long maxLargeRetainedBytes = DEFAULT_MAX_LARGE_RETAINED_BYTES;
+    private final long trimIntervalNanos;
+
     public ArrayByteBufferPool() {
-        this(DEFAULT_MIN_SIZE, DEFAULT_STEP_SIZE, DEFAULT_MAX_SIZE);
+        this(DEFAULT_MAX_SIZE);
     }
 
+    /**
+     * @param maxSize the largest pooled size, a power of two of at least 1024
+     */
+    public ArrayByteBufferPool(int maxSize) {
+        this(maxSize, DEFAULT_THREAD_CACHE_SIZE, DEFAULT_TRIM_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param maxSize         the largest pooled size, a power of two of at least 1024
+     * @param threadCacheSize number of buffers per bucket cached by each event executor thread, {@code 0} disables
+     *                        thread caches
+     * @param trimInterval    how often idle buffers are dropped, {@code 0} disables trimming
+     */
+    public ArrayByteBufferPool(int maxSize, int threadCacheSize, long trimInterval, TimeUnit unit) {
+        this(0, 0, geometricSizes(maxSize), threadCacheSize, trimInterval, unit);
+    }
+
+    /**
+     * Pool with sizes linearly spaced by {@code increment}, sizes up to {@code minSize} are not pooled.
+     */
     public ArrayByteBufferPool(int minSize, int increment, int maxSize) {
-        if (minSize >= increment) {
-            throw new IllegalArgumentException("minSize >= increment");
+        this(minSize, increment, maxSize, DEFAULT_THREAD_CACHE_SIZE);
+    }
+
+    /**
+     * @param threadCacheSize number of buffers per bucket cached by each event executor thread, {@code 0} disables
+     *                        thread caches
+     */
+    public ArrayByteBufferPool(int minSize, int increment, int maxSize, int threadCacheSize) {
+        this(minSize, increment, maxSize, threadCacheSize, DEFAULT_TRIM_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param trimInterval how often idle buffers are dropped, {@code 0} disables trimming
+     */
+    public ArrayByteBufferPool(int minSize, int increment, int maxSize, int threadCacheSize, long trimInterval, TimeUnit unit) {
+        this(minSize, increment, linearSizes(minSize, increment, maxSize), threadCacheSize, trimInterval, unit);
+    }
+
+    private ArrayByteBufferPool(int minSize, int increment, int[] sizes, int threadCacheSize, long trimInterval, TimeUnit unit) {
+        if (threadCacheSize < 0) {
+            throw new IllegalArgumentException("threadCacheSize must be >= 0");
         }
-        if ((maxSize % increment) != 0 || increment >= maxSize) {
-            throw new IllegalArgumentException("increment must be a divisor of maxSize");
+        if (trimInterval < 0) {
+            throw new IllegalArgumentException("trimInterval must be >= 0");
+        }
+        if (unit == null) {
+            throw new IllegalArgumentException("unit");
         }
 
         this.minSize = minSize;
+        this.sizes = sizes;
         this.increment = increment;
+        this.maxSize = sizes[sizes.length - 1];
+        this.threadCacheSize = threadCacheSize == 1 ? 2 : threadCacheSize;
+        this.trimIntervalNanos = unit.toNanos(trimInterval);
 
-        bucketsCount = maxSize / increment;
+        bucketsCount = sizes.length;
 
         directBuckets = new Bucket[bucketsCount];
         heapBuckets = new Bucket[bucketsCount];
 
-        int size = 0;
         for (int i = 0; i < bucketsCount; i++) {
-            size += this.increment;
-            directBuckets[i] = new Bucket(size);
-            heapBuckets[i] = new Bucket(size);
+            directBuckets[i] = new Bucket(sizes[i]);
+            heapBuckets[i] = new Bucket(sizes[i]);
+        }
+
+        // a slot covers SMALL_STEP sizes, geometric sizes below LARGE_THRESHOLD are multiples of it so all of them
+        // fit the same bucket
+        sizeTable = increment > 0 ? null : new int[LARGE_THRESHOLD / SMALL_STEP];
+        int b = 0;
+        for (int i = 0; sizeTable != null && i < sizeTable.length; i++) {
+            int size = (i + 1) * SMALL_STEP;
+            while (b < bucketsCount - 1 && sizes[b] < size) {
+                b++;
+            }
+            sizeTable[i] = b;
+        }
+
+        threadCache = ThreadLocal.withInitial(this::newThreadCache);
+    }
+
+    /**
+     * @param maxRetainedBytes the maximum number of bytes all buckets and thread caches together keep for reuse
+     */
+    public void setMaxRetainedBytes(long maxRetainedBytes) {
+        if (maxRetainedBytes < 0) {
+            throw new IllegalArgumentException("maxRetainedBytes must be >= 0");
+        }
+        this.maxRetainedBytes = maxRetainedBytes;
+    }
+
+    /**
+     * @param maxBucketRetainedBytes the maximum number of bytes each bucket keeps for reuse, thread caches of its size
+     *                               included
+     */
+    public void setMaxBucketRetainedBytes(long maxBucketRetainedBytes) {
+        if (maxBucketRetainedBytes < 0) {
+            throw new IllegalArgumentException("maxBucketRetainedBytes must be >= 0");
+        }
+        this.maxBucketRetainedBytes = maxBucketRetainedBytes;
+    }
+
+    /**
+     * @param maxLargeRetainedBytes the maximum number of bytes all shared buckets of sizes above 64 KB together keep
+     *                              for reuse
+     */
+    public void setMaxLargeRetainedBytes(long maxLargeRetainedBytes) {
+        if (maxLargeRetainedBytes < 0) {
+            throw new IllegalArgumentException("maxLargeRetainedBytes must be >= 0");
+        }
+        this.maxLargeRetainedBytes = maxLargeRetainedBytes;
+    }
+
+    public long getMaxRetainedBytes() {
+        return maxRetainedBytes;
+    }
+
+    public long getMaxBucketRetainedBytes() {
+        return maxBucketRetainedBytes;
+    }
+
+    public long getMaxLargeRetainedBytes() {
+        return maxLargeRetainedBytes;
+    }
+
+    /**
+     * @return number of bytes kept in shared buckets and reserved by thread caches
+     */
+    public long getRetainedBytes() {
+        return retainedBytes.get();
+    }
+
+    /**
+     * @return number of bytes of buffers held by thread caches, part of {@link #getRetainedBytes()}. Caches are read
+     * while their threads use them, so this is an estimate.
+     */
+    public long getThreadCacheBytes() {
+        long bytes = 0;
+        for (long b : threadCacheBytes(false)) {
+            bytes += b;
+        }
+        for (long b : threadCacheBytes(true)) {
+            bytes += b;
+        }
+        return bytes;
+    }
+
+    /**
+     * @return bytes of buffers held by thread caches per bucket
+     */
+    private long[] threadCacheBytes(boolean direct) {
+        long[] bytes = new long[bucketsCount];
+        for (ThreadCache cache : threadCaches) {
+            Stack[] stacks = direct ? cache.directStacks : cache.heapStacks;
+            for (int i = 0; i < bucketsCount; i++) {
+                Stack stack = stacks[i];
+                if (stack != null) {
+                    bytes[i] += (long) sizes[i] * stack.size;
+                }
+            }
         }
+        return bytes;
+    }
+
+    /**
+     * @return snapshot of pool counters
+     */
+    public ByteBufferPoolStats stats() {
+        List<ByteBufferPoolStats.SizeClass> sizeClasses = new ArrayList<>(bucketsCount);
+        long[] heapThreadCacheBytes = threadCacheBytes(false);
+        long[] directThreadCacheBytes = threadCacheBytes(true);
+        for (int i = 0; i < bucketsCount; i++) {
+            Bucket heap = heapBuckets[i];
+            Bucket direct = directBuckets[i];
+            sizeClasses.add(new ByteBufferPoolStats.SizeClass(sizes[i], heap.hits.sum(), heap.misses.sum(),
+                    direct.hits.sum(), direct.misses.sum(), heap.retainedBytes.get(), direct.retainedBytes.get(),
+                    heapThreadCacheBytes[i], directThreadCacheBytes[i]));
+        }
+        return new ByteBufferPoolStats(sizeClasses, unpooledAllocations.sum(), unmatchedReleases.sum(),
+                rejectedReleases.sum(), trimmedBuffers.sum());
+    }
+
+    /**
+     * Registers the pool with the platform MBean server as {@code io.lighty:type=ByteBufferPool,name=<name>}
+     *
+     * @return name the pool is registered under
+     */
+    public ObjectName registerMBean(String name) throws JMException {
+        ObjectName objectName = new ObjectName("io.lighty:type=ByteBufferPool,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(new PoolMXBean(), objectName);
+        return objectName;
+    }
+
+    private static int[] geometricSizes(int maxSize) {
+        if (maxSize < 1024 || (maxSize & maxSize - 1) != 0) {
+            throw new IllegalArgumentException("maxSize must be a power of two >= 1024");
+        }
+
+        List<Integer> sizes = new ArrayList<>();
+        for (int size = SMALL_STEP; size <= SMALL_MAX_SIZE; size += SMALL_STEP) {
+            sizes.add(size);
+        }
+        for (int base = SMALL_MAX_SIZE; base < Math.min(maxSize, LARGE_THRESHOLD); base <<= 1) {
+            int step = base / MEDIUM_STEPS_PER_DOUBLING;
+            for (int i = 1; i <= MEDIUM_STEPS_PER_DOUBLING; i++) {
+                sizes.add(base + i * step);
+            }
+        }
+        for (int size = LARGE_THRESHOLD << 1; size <= maxSize; size <<= 1) {
+            sizes.add(size);
+        }
+        return sizes.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int[] linearSizes(int minSize, int increment, int maxSize) {
+        if (minSize >= increment) {
+            throw new IllegalArgumentException("minSize >= increment");
+        }
+        if ((maxSize % increment) != 0 || increment >= maxSize) {
+            throw new IllegalArgumentException("increment must be a divisor of maxSize");
+        }
+
+        int[] sizes = new int[maxSize / increment];
+        for (int i = 0; i < sizes.length; i++) {
+            sizes[i] = (i + 1) * increment;
+        }
+        return sizes;
+    }
+
+    private ThreadCache newThreadCache() {
+        SingleThreadEventExecutor executor = SingleThreadEventExecutor.currentExecutor();
+        if (executor == null) {
+            return null;
+        }
+
+        ThreadCache cache = new ThreadCache(bucketsCount);
+        if (trimIntervalNanos > 0) {
+            try {
+                executor.scheduleWithFixedDelay(cache::trim, trimIntervalNanos, trimIntervalNanos, TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException ignore) {
+                // shutting down, nothing to trim for
+            }
+        }
+        threadCaches.add(cache);
+        executor.terminationFuture().addListener(future -> {
+            threadCaches.remove(cache);
+            cache.free();
+        });
+        return cache;
     }
 
     @Override
     public ByteBuffer acquire(int size, boolean direct) {
-        Bucket bucket = bucketFor(size, direct);
-        ByteBuffer buffer = bucket == null ? null : bucket.queue.poll();
+        int b = bucketIndex(size);
+        if (b < 0) {
+            unpooledAllocations.increment();
+            return direct ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
+        }
+
+        Bucket bucket = direct ? directBuckets[b] : heapBuckets[b];
+        ThreadCache cache = bucket.large ? null : threadCache.get();
+        ByteBuffer buffer = cache == null || threadCacheSize == 0 ? bucket.poll() : cache.stack(b, direct).pop();
 
         if (buffer == null) {
-            int capacity = bucket == null ? size : bucket.size;
-            buffer = direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+            bucket.misses.increment();
+            buffer = direct ? ByteBuffer.allocateDirect(bucket.size) : ByteBuffer.allocate(bucket.size);
+        } else {
+            bucket.hits.increment();
         }
 
         return buffer;
     }
 
+    /**
+     * Buffers whose capacity matches no size class are neither retained nor freed, whoever allocated them may still
+     * use them and they are left to the garbage collector.
+     */
     @Override
     public void release(ByteBuffer buffer) {
         if (buffer != null) {
-            Bucket bucket = bucketFor(buffer.capacity(), buffer.isDirect());
-            if (bucket != null) {
-                buffer.clear();
-                bucket.queue.offer(buffer);
+            int b = bucketIndex(buffer.capacity());
+            Bucket bucket = b < 0 ? null : buffer.isDirect() ? directBuckets[b] : heapBuckets[b];
+            if (bucket == null || bucket.size != buffer.capacity()) {
+                // not ours, would be handed out for sizes it can not hold
+                unmatchedReleases.increment();
+                return;
+            }
+
+            buffer.clear();
+            ThreadCache cache = bucket.large ? null : threadCache.get();
+            if (cache == null || threadCacheSize == 0) {
+                bucket.offer(buffer);
+            } else {
+                cache.stack(b, buffer.isDirect()).push(buffer);
             }
         }
     }
 
+    /**
+     * Drops buffers of shared buckets and the cache of the calling thread, caches of other threads are left as they are.
+     */
     @Override
     public void clear() {
         for (int i = 0; i < bucketsCount; i++) {
-            directBuckets[i].queue.clear();
-            heapBuckets[i].queue.clear();
+            directBuckets[i].drain();
+            heapBuckets[i].drain();
         }
-    }
 
-    private Bucket bucketFor(int size, boolean direct) {
-        if (size <= minSize) {
-            return null;
+        ThreadCache cache = threadCache.get();
+        if (cache != null) {
+            cache.free();
         }
-        int b = (size - 1) / increment;
-        if (b >= this.directBuckets.length) {
-            return null;
+    }
+
+    private void trimBuckets() {
+        long now = System.nanoTime();
+        for (int i = 0; i < bucketsCount; i++) {
+            directBuckets[i].trim(now);
+            heapBuckets[i].trim(now);
         }
+    }
 
-        return direct ? this.directBuckets[b] : heapBuckets[b];
+    private int bucketIndex(int size) {
+        if (size <= minSize || size > maxSize) {
+            return -1;
+        }
+        if (increment > 0) {
+            return (size - 1) / increment;
+        }
+        if (size <= LARGE_THRESHOLD) {
+            return sizeTable[(size - 1) / SMALL_STEP];
+        }
+        int b = Arrays.binarySearch(sizes, size);
+        return b >= 0 ? b : -b - 1;
     }
 
-    private static final class Bucket {
-        public final int size;
-        public final Queue<ByteBuffer> queue = new ConcurrentLinkedQueue<>();
+    private final class Bucket {
+        final int size;
+        final Queue<ByteBuffer> queue = new ConcurrentLinkedQueue<>();
+        /**
+         * Buffers spilled by thread caches, only thread caches take from here. Their bytes stay reserved while they move
+         * between the thread caches and this queue.
+         */
+        final Queue<ByteBuffer[]> batches = new ConcurrentLinkedQueue<>();
+        final boolean large;
+        final AtomicLong retainedBytes = new AtomicLong();
+        final LongAdder hits = new LongAdder();
+        final LongAdder misses = new LongAdder();
+        /**
+         * Number of acquires seen by the last trim and {@link System#nanoTime()} of the trim which saw it change,
+         * so a bucket is drained once idle for the trim interval however many threads trim
+         */
+        private long trimAcquires;
+        private long trimActiveNanos = System.nanoTime();
 
-        public Bucket(int size) {
+        Bucket(int size) {
             this.size = size;
+            this.large = size > LARGE_THRESHOLD;
+        }
+
+        ByteBuffer poll() {
+            ByteBuffer buffer = queue.poll();
+            if (buffer != null) {
+                retained(-size);
+            }
+            return buffer;
+        }
+
+        void offer(ByteBuffer buffer) {
+            if (reserve(size)) {
+                queue.offer(buffer);
+            } else {
+                rejectedReleases.increment();
+                Buffers.free(buffer);
+            }
+        }
+
+        /**
+         * @return batch whose bytes are now reserved by the caller or {@code null}
+         */
+        ByteBuffer[] pollBatch() {
+            return batches.poll();
+        }
+
+        /**
+         * @param batch buffers whose bytes the caller has reserved
+         */
+        void offerBatch(ByteBuffer[] batch) {
+            batches.offer(batch);
+        }
+
+        boolean reserve(long bytes) {
+            if (retainedBytes.addAndGet(bytes) > maxBucketRetainedBytes) {
+                retainedBytes.addAndGet(-bytes);
+                return false;
+            }
+            if (large && largeRetainedBytes.addAndGet(bytes) > maxLargeRetainedBytes) {
+                largeRetainedBytes.addAndGet(-bytes);
+                retainedBytes.addAndGet(-bytes);
+                return false;
+            }
+            if (ArrayByteBufferPool.this.retainedBytes.addAndGet(bytes) > maxRetainedBytes) {
+                ArrayByteBufferPool.this.retainedBytes.addAndGet(-bytes);
+                if (large) {
+                    largeRetainedBytes.addAndGet(-bytes);
+                }
+                retainedBytes.addAndGet(-bytes);
+                return false;
+            }
+            return true;
+        }
+
+        void retained(long bytes) {
+            retainedBytes.addAndGet(bytes);
+            ArrayByteBufferPool.this.retainedBytes.addAndGet(bytes);
+            if (large) {
+                largeRetainedBytes.addAndGet(bytes);
+            }
+        }
+
+        synchronized void trim(long now) {
+            long acquires = hits.sum() + misses.sum();
+            if (acquires != trimAcquires) {
+                trimAcquires = acquires;
+                trimActiveNanos = now;
+            } else if (now - trimActiveNanos >= trimIntervalNanos) {
+                trimmedBuffers.add(drain());
+            }
+        }
+
+        /**
+         * @return number of buffers dropped
+         */
+        int drain() {
+            int count = 0;
+            ByteBuffer buffer;
+            while ((buffer = queue.poll()) != null) {
+                retained(-size);
+                Buffers.free(buffer);
+                count++;
+            }
+            ByteBuffer[] batch;
+            while ((batch = batches.poll()) != null) {
+                retained(-(long) size * batch.length);
+                for (ByteBuffer b : batch) {
+                    Buffers.free(b);
+                }
+                count += batch.length;
+            }
+            return count;
+        }
+    }
+
+    private final class ThreadCache {
+        private final Stack[] heapStacks;
+        private final Stack[] directStacks;
+
+        ThreadCache(int bucketsCount) {
+            heapStacks = new Stack[bucketsCount];
+            directStacks = new Stack[bucketsCount];
+        }
+
+        Stack stack(int b, boolean direct) {
+            Stack[] stacks = direct ? directStacks : heapStacks;
+            Stack stack = stacks[b];
+            if (stack == null) {
+                stacks[b] = stack = new Stack(threadCacheSize, direct ? directBuckets[b] : heapBuckets[b]);
+            }
+            return stack;
+        }
+
+        void trim() {
+            for (int i = 0; i < heapStacks.length; i++) {
+                if (heapStacks[i] != null) {
+                    heapStacks[i].trim();
+                }
+                if (directStacks[i] != null) {
+                    directStacks[i].trim();
+                }
+            }
+            trimBuckets();
+        }
+
+        void free() {
+            for (int i = 0; i < heapStacks.length; i++) {
+                if (heapStacks[i] != null) {
+                    heapStacks[i].free();
+                }
+                if (directStacks[i] != null) {
+                    directStacks[i].free();
+                }
+            }
+        }
+    }
+
+    private final class Stack {
+        private final ByteBuffer[] buffers;
+        private final Bucket bucket;
+        /**
+         * Read without synchronization by {@link #stats()}
+         */
+        private int size;
+        /**
+         * Number of buffers whose bytes are reserved in the bucket, at least {@link #size}
+         */
+        private int reserved;
+        /**
+         * Whether acquired from since the last trim
+         */
+        private boolean used;
+
+        Stack(int capacity, Bucket bucket) {
+            this.buffers = new ByteBuffer[capacity];
+            this.bucket = bucket;
+        }
+
+        ByteBuffer pop() {
+            used = true;
+            if (size == 0 && !refill()) {
+                return bucket.poll();
+            }
+            ByteBuffer buffer = buffers[--size];
+            buffers[size] = null;
+            return buffer;
+        }
+
+        private boolean refill() {
+            ByteBuffer[] batch = bucket.pollBatch();
+            if (batch == null) {
+                return false;
+            }
+            System.arraycopy(batch, 0, buffers, 0, batch.length);
+            size = batch.length;
+            reserved += batch.length;
+            if (reserved > buffers.length) {
+                unreserve(reserved - buffers.length);
+            }
+            return true;
+        }
+
+        void push(ByteBuffer buffer) {
+            if (size == buffers.length) {
+                spill();
+            }
+            if (size == reserved) {
+                // a batch at once keeps the shared counters out of the way, a single buffer when close to the limits
+                int count = Math.min(buffers.length >> 1, buffers.length - reserved);
+                if (!bucket.reserve((long) bucket.size * count)) {
+                    if (count == 1 || !bucket.reserve(bucket.size)) {
+                        rejectedReleases.increment();
+                        Buffers.free(buffer);
+                        return;
+                    }
+                    count = 1;
+                }
+                reserved += count;
+            }
+            buffers[size++] = buffer;
+        }
+
+        private void spill() {
+            int batchSize = buffers.length >> 1;
+            size -= batchSize;
+            reserved -= batchSize;
+            ByteBuffer[] batch = new ByteBuffer[batchSize];
+            System.arraycopy(buffers, size, batch, 0, batchSize);
+            for (int i = size; i < buffers.length; i++) {
+                buffers[i] = null;
+            }
+            bucket.offerBatch(batch);
+        }
+
+        private void unreserve(int count) {
+            reserved -= count;
+            bucket.retained(-(long) bucket.size * count);
+        }
+
+        void trim() {
+            if (used) {
+                used = false;
+            } else if (size > 0) {
+                trimmedBuffers.add(size);
+                free();
+            }
+            if (reserved > size) {
+                unreserve(reserved - size);
+            }
+        }
+
+        void free() {
+            for (int i = 0; i < size; i++) {
+                Buffers.free(buffers[i]);
+                buffers[i] = null;
+            }
+            size = 0;
+            unreserve(reserved);
+        }
+    }
+
+    private final class PoolMXBean implements ByteBufferPoolMXBean {
+
+        @Override
+        public long getHits() {
+            return stats().getHits();
+        }
+
+        @Override
+        public long getMisses() {
+            return stats().getMisses();
+        }
+
+        @Override
+        public double getHitRatio() {
+            return stats().getHitRatio();
+        }
+
+        @Override
+        public long getHeapRetainedBytes() {
+            return stats().getHeapRetainedBytes();
+        }
+
+        @Override
+        public long getDirectRetainedBytes() {
+            return stats().getDirectRetainedBytes();
+        }
+
+        @Override
+        public long getHeapThreadCacheBytes() {
+            return stats().getHeapThreadCacheBytes();
+        }
+
+        @Override
+        public long getDirectThreadCacheBytes() {
+            return stats().getDirectThreadCacheBytes();
+        }
+
+        @Override
+        public long getUnpooledAllocations() {
+            return unpooledAllocations.sum();
+        }
+
+        @Override
+        public long getUnmatchedReleases() {
+            return unmatchedReleases.sum();
+        }
+
+        @Override
+        public long getRejectedReleases() {
+            return rejectedReleases.sum();
+        }
+
+        @Override
+        public long getTrimmedBuffers() {
+            return trimmedBuffers.sum();
+        }
+
+        @Override
+        public List<ByteBufferPoolStats.SizeClass> getSizeClasses() {
+            return stats().getSizeClasses();
+        }
+
+        @Override
+        public long getMaxRetainedBytes() {
+            return maxRetainedBytes;
+        }
+
+        @Override
+        public void setMaxRetainedBytes(long maxRetainedBytes) {
+            ArrayByteBufferPool.this.setMaxRetainedBytes(maxRetainedBytes);
+        }
+
+        @Override
+        public long getMaxBucketRetainedBytes() {
+            return maxBucketRetainedBytes;
+        }
+
+        @Override
+        public void setMaxBucketRetainedBytes(long maxBucketRetainedBytes) {
+            ArrayByteBufferPool.this.setMaxBucketRetainedBytes(maxBucketRetainedBytes);
+        }
+
+        @Override
+        public long getMaxLargeRetainedBytes() {
+            return maxLargeRetainedBytes;
+        }
+
+        @Override
+        public void setMaxLargeRetainedBytes(long maxLargeRetainedBytes) {
+            ArrayByteBufferPool.this.setMaxLargeRetainedBytes(maxLargeRetainedBytes);
         }
     }
 }
@@ -1,9 +1,23 @@
 package io.lighty.buffer;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.Buffer;
 import java.nio.ByteBuffer;
 
 public final class Buffers {
 
+    private static final Logger logger = LoggerFactory.getLogger(Buffers.class);
+
+    private static final MethodHandle FREE_DIRECT = freeDirectHandle();
+    private static final MethodHandle DIRECT_ADDRESS = directAddressHandle();
+
     private Buffers() {
     }
 
@@ -13,4 +27,127 @@ public final class Buffers {
         buffer.get(message, 0, length);
         return message;
     }
+
+    /**
+     * Increments the reference count of {@code message} if it is {@link ReferenceCounted}
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T retain(T message) {
+        if (message instanceof ReferenceCounted) {
+            return (T) ((ReferenceCounted) message).retain();
+        }
+        return message;
+    }
+
+    /**
+     * Decrements the reference count of {@code message} if it is {@link ReferenceCounted}
+     *
+     * @return {@code true} if the message was deallocated
+     */
+    public static boolean release(Object message) {
+        if (message instanceof ReferenceCounted) {
+            return ((ReferenceCounted) message).release();
+        }
+        return false;
+    }
+
+    /**
+     * Records {@code hint} on {@code message} if it is {@link ReferenceCounted}
+     */
+    public static void touch(Object message, Object hint) {
+        if (message instanceof ReferenceCounted) {
+            ((ReferenceCounted) message).touch(hint);
+        }
+    }
+
+    /**
+     * Same as {@link #release(Object)} but logs instead of throwing
+     */
+    public static void safeRelease(Object message) {
+        try {
+            release(message);
+        } catch (Throwable e) {
+            logger.warn("failed to release a message: {}", message, e);
+        }
+    }
+
+    /**
+     * Releases memory of a direct buffer now instead of when it is garbage collected. The buffer must not be used
+     * afterwards. Heap buffers, slices and duplicates are left to the garbage collector.
+     */
+    public static void free(ByteBuffer buffer) {
+        if (FREE_DIRECT == null || buffer == null || !buffer.isDirect()) {
+            return;
+        }
+        try {
+            FREE_DIRECT.invokeExact(buffer);
+        } catch (Throwable ignore) {
+            // not the owner of its memory
+        }
+    }
+
+    /**
+     * @return address of the memory of a direct buffer, {@code 0} for heap buffers or if it can not be read
+     */
+    static long address(ByteBuffer buffer) {
+        if (DIRECT_ADDRESS == null || !buffer.isDirect()) {
+            return 0;
+        }
+        try {
+            return (long) DIRECT_ADDRESS.invokeExact(buffer);
+        } catch (Throwable ignore) {
+            return 0;
+        }
+    }
+
+    /**
+     * @return whether {@link #address(ByteBuffer)} can read addresses of direct buffers
+     */
+    static boolean canReadAddress() {
+        return DIRECT_ADDRESS != null;
+    }
+
+    private static MethodHandle directAddressHandle() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            Object unsafe = theUnsafe.get(null);
+            long offset = (long) unsafeClass.getMethod("objectFieldOffset", Field.class)
+                    .invoke(unsafe, Buffer.class.getDeclaredField("address"));
+            MethodHandle getLong = MethodHandles.lookup()
+                    .unreflect(unsafeClass.getMethod("getLong", Object.class, long.class)).bindTo(unsafe);
+            return MethodHandles.insertArguments(getLong, 1, offset)
+                    .asType(MethodType.methodType(long.class, ByteBuffer.class));
+        } catch (Throwable e) {
+            logger.debug("addresses of direct buffers can not be read", e);
+            return null;
+        }
+    }
+
+    private static MethodHandle freeDirectHandle() {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            // java 9+
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            return lookup.unreflect(invokeCleaner).bindTo(theUnsafe.get(null));
+        } catch (Throwable ignore) {
+        }
+
+        try {
+            // java 8
+            Method cleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+            Method clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+            cleaner.setAccessible(true);
+            clean.setAccessible(true);
+            MethodHandle handle = MethodHandles.filterReturnValue(lookup.unreflect(cleaner), lookup.unreflect(clean));
+            return handle.asType(MethodType.methodType(void.class, ByteBuffer.class));
+        } catch (Throwable e) {
+            logger.debug("direct buffers can not be freed explicitly", e);
+            return null;
+        }
+    }
 }
@@ -0,0 +1,45 @@
+package io.lighty.buffer;
+
+import java.util.List;
+
+/**
+ * Management interface of {@link ArrayByteBufferPool}, see {@link ArrayByteBufferPool#registerMBean(String)}
+ */
+public interface ByteBufferPoolMXBean {
+
+    long getHits();
+
+    long getMisses();
+
+    double getHitRatio();
+
+    long getHeapRetainedBytes();
+
+    long getDirectRetainedBytes();
+
+    long getHeapThreadCacheBytes();
+
+    long getDirectThreadCacheBytes();
+
+    long getUnpooledAllocations();
+
+    long getUnmatchedReleases();
+
+    long getRejectedReleases();
+
+    long getTrimmedBuffers();
+
+    List<ByteBufferPoolStats.SizeClass> getSizeClasses();
+
+    long getMaxRetainedBytes();
+
+    void setMaxRetainedBytes(long maxRetainedBytes);
+
+    long getMaxBucketRetainedBytes();
+
+    void setMaxBucketRetainedBytes(long maxBucketRetainedBytes);
+
+    long getMaxLargeRetainedBytes();
+
+    void setMaxLargeRetainedBytes(long maxLargeRetainedBytes);
+}
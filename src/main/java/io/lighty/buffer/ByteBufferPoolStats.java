@@ -0,0 +1,201 @@
+package io.lighty.buffer;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Snapshot of {@link ArrayByteBufferPool} counters. <br/>
+ * Counters are sampled one by one while the pool is in use, so they are not consistent with each other. Retained bytes
+ * are the bytes counted against the retention limits, buffers in shared buckets and bytes reserved by thread caches.
+ * Thread cache bytes are the part of them held by buffers in thread caches.
+ */
+public final class ByteBufferPoolStats {
+
+    private final List<SizeClass> sizeClasses;
+    private final long unpooledAllocations;
+    private final long unmatchedReleases;
+    private final long rejectedReleases;
+    private final long trimmedBuffers;
+
+    ByteBufferPoolStats(List<SizeClass> sizeClasses, long unpooledAllocations, long unmatchedReleases,
+                        long rejectedReleases, long trimmedBuffers) {
+        this.sizeClasses = Collections.unmodifiableList(sizeClasses);
+        this.unpooledAllocations = unpooledAllocations;
+        this.unmatchedReleases = unmatchedReleases;
+        this.rejectedReleases = rejectedReleases;
+        this.trimmedBuffers = trimmedBuffers;
+    }
+
+    public List<SizeClass> getSizeClasses() {
+        return sizeClasses;
+    }
+
+    /**
+     * @return number of acquisitions served by a pooled buffer
+     */
+    public long getHits() {
+        long hits = 0;
+        for (SizeClass sizeClass : sizeClasses) {
+            hits += sizeClass.heapHits + sizeClass.directHits;
+        }
+        return hits;
+    }
+
+    /**
+     * @return number of acquisitions of a pooled size which had to allocate a new buffer
+     */
+    public long getMisses() {
+        long misses = 0;
+        for (SizeClass sizeClass : sizeClasses) {
+            misses += sizeClass.heapMisses + sizeClass.directMisses;
+        }
+        return misses;
+    }
+
+    /**
+     * @return share of acquisitions of pooled sizes served by a pooled buffer, {@code 0} if nothing was acquired
+     */
+    public double getHitRatio() {
+        long hits = getHits();
+        long total = hits + getMisses();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    public long getHeapRetainedBytes() {
+        long bytes = 0;
+        for (SizeClass sizeClass : sizeClasses) {
+            bytes += sizeClass.heapRetainedBytes;
+        }
+        return bytes;
+    }
+
+    public long getDirectRetainedBytes() {
+        long bytes = 0;
+        for (SizeClass sizeClass : sizeClasses) {
+            bytes += sizeClass.directRetainedBytes;
+        }
+        return bytes;
+    }
+
+    public long getHeapThreadCacheBytes() {
+        long bytes = 0;
+        for (SizeClass sizeClass : sizeClasses) {
+            bytes += sizeClass.heapThreadCacheBytes;
+        }
+        return bytes;
+    }
+
+    public long getDirectThreadCacheBytes() {
+        long bytes = 0;
+        for (SizeClass sizeClass : sizeClasses) {
+            bytes += sizeClass.directThreadCacheBytes;
+        }
+        return bytes;
+    }
+
+    /**
+     * @return number of acquisitions of sizes which are not pooled, each allocated a new buffer
+     */
+    public long getUnpooledAllocations() {
+        return unpooledAllocations;
+    }
+
+    /**
+     * @return number of released buffers which matched no size class and were dropped without being freed
+     */
+    public long getUnmatchedReleases() {
+        return unmatchedReleases;
+    }
+
+    /**
+     * @return number of released buffers dropped because retention limits were reached
+     */
+    public long getRejectedReleases() {
+        return rejectedReleases;
+    }
+
+    /**
+     * @return number of idle buffers dropped by trimming
+     */
+    public long getTrimmedBuffers() {
+        return trimmedBuffers;
+    }
+
+    @Override
+    public String toString() {
+        return "ByteBufferPoolStats(hits: " + getHits() + ", misses: " + getMisses()
+                + ", heapRetainedBytes: " + getHeapRetainedBytes() + ", directRetainedBytes: " + getDirectRetainedBytes()
+                + ", heapThreadCacheBytes: " + getHeapThreadCacheBytes() + ", directThreadCacheBytes: " + getDirectThreadCacheBytes()
+                + ", unpooledAllocations: " + unpooledAllocations + ", unmatchedReleases: " + unmatchedReleases
+                + ", rejectedReleases: " + rejectedReleases + ", trimmedBuffers: " + trimmedBuffers + ')';
+    }
+
+    public static final class SizeClass {
+        private final int size;
+        private final long heapHits;
+        private final long heapMisses;
+        private final long directHits;
+        private final long directMisses;
+        private final long heapRetainedBytes;
+        private final long directRetainedBytes;
+        private final long heapThreadCacheBytes;
+        private final long directThreadCacheBytes;
+
+        SizeClass(int size, long heapHits, long heapMisses, long directHits, long directMisses,
+                  long heapRetainedBytes, long directRetainedBytes, long heapThreadCacheBytes, long directThreadCacheBytes) {
+            this.size = size;
+            this.heapHits = heapHits;
+            this.heapMisses = heapMisses;
+            this.directHits = directHits;
+            this.directMisses = directMisses;
+            this.heapRetainedBytes = heapRetainedBytes;
+            this.directRetainedBytes = directRetainedBytes;
+            this.heapThreadCacheBytes = heapThreadCacheBytes;
+            this.directThreadCacheBytes = directThreadCacheBytes;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public long getHeapHits() {
+            return heapHits;
+        }
+
+        public long getHeapMisses() {
+            return heapMisses;
+        }
+
+        public long getDirectHits() {
+            return directHits;
+        }
+
+        public long getDirectMisses() {
+            return directMisses;
+        }
+
+        public long getHeapRetainedBytes() {
+            return heapRetainedBytes;
+        }
+
+        public long getDirectRetainedBytes() {
+            return directRetainedBytes;
+        }
+
+        public long getHeapThreadCacheBytes() {
+            return heapThreadCacheBytes;
+        }
+
+        public long getDirectThreadCacheBytes() {
+            return directThreadCacheBytes;
+        }
+
+        @Override
+        public String toString() {
+            return "SizeClass(size: " + size + ", heapHits: " + heapHits + ", heapMisses: " + heapMisses
+                    + ", directHits: " + directHits + ", directMisses: " + directMisses
+                    + ", heapRetainedBytes: " + heapRetainedBytes + ", directRetainedBytes: " + directRetainedBytes
+                    + ", heapThreadCacheBytes: " + heapThreadCacheBytes + ", directThreadCacheBytes: " + directThreadCacheBytes + ')';
+        }
+    }
+}
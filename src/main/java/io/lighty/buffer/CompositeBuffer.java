@@ -0,0 +1,352 @@
+package io.lighty.buffer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reference counted sequence of {@link PooledBuffer}s read as one region without copying. <br/>
+ * A component added to the composite is owned by it, readable bytes of the component at the time it is added are
+ * appended to the region. Components are released when the composite is deallocated or, once fully read, by
+ * {@link #discardReadComponents()}. Bytes are copied into one buffer only by {@link #consolidate(ByteBufferPool, boolean)}.
+ * <br/>
+ * Not thread safe except for reference counting.
+ */
+public final class CompositeBuffer extends AbstractReferenceCounted {
+
+    private final List<Component> components = new ArrayList<>();
+    private int readerIndex;
+    private int writerIndex;
+
+    /**
+     * Appends readable bytes of {@code buffer}, which is owned by this composite from now on
+     */
+    public CompositeBuffer addComponent(PooledBuffer buffer) {
+        if (buffer == null) {
+            throw new IllegalArgumentException("buffer");
+        }
+        try {
+            ensureAccessible();
+        } catch (IllegalStateException e) {
+            buffer.release();
+            throw e;
+        }
+
+        int length = buffer.readableBytes();
+        if (length == 0) {
+            buffer.release();
+            return this;
+        }
+        if (writerIndex > Integer.MAX_VALUE - length) {
+            buffer.release();
+            throw new IllegalArgumentException("composite buffer can not exceed " + Integer.MAX_VALUE + " bytes");
+        }
+        components.add(new Component(buffer.slice(), writerIndex));
+        writerIndex += length;
+        return this;
+    }
+
+    public int numComponents() {
+        return components.size();
+    }
+
+    public int readerIndex() {
+        return readerIndex;
+    }
+
+    public CompositeBuffer readerIndex(int readerIndex) {
+        if (readerIndex < 0 || readerIndex > writerIndex) {
+            throw new IndexOutOfBoundsException("readerIndex: " + readerIndex + " (writerIndex: " + writerIndex + ")");
+        }
+        this.readerIndex = readerIndex;
+        return this;
+    }
+
+    public int writerIndex() {
+        return writerIndex;
+    }
+
+    public int readableBytes() {
+        return writerIndex - readerIndex;
+    }
+
+    public boolean isReadable() {
+        return writerIndex > readerIndex;
+    }
+
+    public byte getByte(int index) {
+        ensureAccessible();
+        checkIndex(index, 1);
+        Component component = components.get(componentIndex(index));
+        return component.buffer.getByte(index - component.offset);
+    }
+
+    public byte readByte() {
+        byte b = getByte(readerIndex);
+        readerIndex++;
+        return b;
+    }
+
+    /**
+     * Copies {@code length} bytes from {@code index} into {@code dst}, indexes are not modified
+     */
+    public CompositeBuffer getBytes(int index, byte[] dst, int offset, int length) {
+        ensureAccessible();
+        checkIndex(index, length);
+        for (int i = componentIndex(index); length > 0; i++) {
+            Component component = components.get(i);
+            int localIndex = index - component.offset;
+            int localLength = Math.min(length, component.length() - localIndex);
+            component.buffer.getBytes(localIndex, dst, offset, localLength);
+            index += localLength;
+            offset += localLength;
+            length -= localLength;
+        }
+        return this;
+    }
+
+    public CompositeBuffer readBytes(byte[] dst) {
+        return readBytes(dst, 0, dst.length);
+    }
+
+    public CompositeBuffer readBytes(byte[] dst, int offset, int length) {
+        getBytes(readerIndex, dst, offset, length);
+        readerIndex += length;
+        return this;
+    }
+
+    /**
+     * Writes readable bytes to {@code channel} with a single gathering write
+     *
+     * @return number of bytes written
+     */
+    public long readBytes(GatheringByteChannel channel) throws IOException {
+        long written = channel.write(nioBuffers());
+        readerIndex += (int) written;
+        return written;
+    }
+
+    public CompositeBuffer skipBytes(int length) {
+        checkIndex(readerIndex, length);
+        readerIndex += length;
+        return this;
+    }
+
+    /**
+     * @return index of the first readable byte equal to {@code value}, {@code -1} if there is none
+     */
+    public int indexOf(byte value) {
+        ensureAccessible();
+        if (!isReadable()) {
+            return -1;
+        }
+        for (int i = componentIndex(readerIndex); i < components.size(); i++) {
+            Component component = components.get(i);
+            for (int index = Math.max(readerIndex, component.offset); index < component.end(); index++) {
+                if (component.buffer.getByte(index - component.offset) == value) {
+                    return index;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return copy of readable bytes, indexes are not modified
+     */
+    public byte[] toByteArray() {
+        byte[] bytes = new byte[readableBytes()];
+        getBytes(readerIndex, bytes, 0, bytes.length);
+        return bytes;
+    }
+
+    /**
+     * @return views of readable bytes, one per component, for gathering writes
+     */
+    public ByteBuffer[] nioBuffers() {
+        return nioBuffers(readerIndex, readableBytes());
+    }
+
+    /**
+     * @return views of {@code length} bytes from {@code index}, one per component they span
+     */
+    public ByteBuffer[] nioBuffers(int index, int length) {
+        ensureAccessible();
+        checkIndex(index, length);
+        if (length == 0) {
+            return new ByteBuffer[0];
+        }
+
+        int first = componentIndex(index);
+        int last = componentIndex(index + length - 1);
+        ByteBuffer[] buffers = new ByteBuffer[last - first + 1];
+        for (int i = first; i <= last; i++) {
+            Component component = components.get(i);
+            int localIndex = Math.max(index, component.offset) - component.offset;
+            int localEnd = Math.min(index + length, component.end()) - component.offset;
+            buffers[i - first] = component.buffer.nioBuffer(localIndex, localEnd - localIndex);
+        }
+        return buffers;
+    }
+
+    /**
+     * @return composite over {@code length} bytes from {@code index}, sharing memory with this buffer and released
+     * independently of it
+     */
+    public CompositeBuffer retainedSlice(int index, int length) {
+        ensureAccessible();
+        checkIndex(index, length);
+
+        CompositeBuffer slice = new CompositeBuffer();
+        if (length == 0) {
+            return slice;
+        }
+        int last = componentIndex(index + length - 1);
+        for (int i = componentIndex(index); i <= last; i++) {
+            Component component = components.get(i);
+            int localIndex = Math.max(index, component.offset) - component.offset;
+            int localEnd = Math.min(index + length, component.end()) - component.offset;
+            slice.addComponent(component.buffer.slice(localIndex, localEnd - localIndex).retain());
+        }
+        return slice;
+    }
+
+    /**
+     * Same as {@link #retainedSlice(int, int)} of {@code length} bytes from {@code readerIndex}, which is advanced by
+     * {@code length}
+     */
+    public CompositeBuffer readRetainedSlice(int length) {
+        CompositeBuffer slice = retainedSlice(readerIndex, length);
+        readerIndex += length;
+        return slice;
+    }
+
+    /**
+     * Releases components which were fully read
+     */
+    public CompositeBuffer discardReadComponents() {
+        ensureAccessible();
+        int count = 0;
+        while (count < components.size() && components.get(count).end() <= readerIndex) {
+            components.get(count++).buffer.release();
+        }
+        if (count == 0) {
+            return this;
+        }
+
+        components.subList(0, count).clear();
+        int discarded = components.isEmpty() ? writerIndex : components.get(0).offset;
+        for (Component component : components) {
+            component.offset -= discarded;
+        }
+        readerIndex -= discarded;
+        writerIndex -= discarded;
+        return this;
+    }
+
+    /**
+     * Copies readable bytes into a single buffer acquired from {@code pool} which replaces all components
+     */
+    public CompositeBuffer consolidate(ByteBufferPool pool, boolean direct) {
+        ensureAccessible();
+        if (components.size() <= 1 && readerIndex == 0) {
+            return this;
+        }
+
+        PooledBuffer buffer = PooledBuffer.allocate(pool, readableBytes(), direct);
+        for (ByteBuffer nioBuffer : nioBuffers()) {
+            buffer.writeBytes(nioBuffer);
+        }
+        releaseComponents();
+        readerIndex = 0;
+        writerIndex = 0;
+        return addComponent(buffer);
+    }
+
+    @Override
+    public CompositeBuffer retain() {
+        return (CompositeBuffer) super.retain();
+    }
+
+    @Override
+    public CompositeBuffer retain(int increment) {
+        return (CompositeBuffer) super.retain(increment);
+    }
+
+    @Override
+    public CompositeBuffer touch(Object hint) {
+        for (Component component : components) {
+            component.buffer.touch(hint);
+        }
+        return this;
+    }
+
+    @Override
+    protected void deallocate() {
+        releaseComponents();
+    }
+
+    private void releaseComponents() {
+        for (Component component : components) {
+            component.buffer.release();
+        }
+        components.clear();
+    }
+
+    /**
+     * @return index of the component holding byte at {@code index}
+     */
+    private int componentIndex(int index) {
+        int low = 0;
+        int high = components.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            Component component = components.get(mid);
+            if (index >= component.end()) {
+                low = mid + 1;
+            } else if (index < component.offset) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        throw new IndexOutOfBoundsException("index: " + index + " (writerIndex: " + writerIndex + ")");
+    }
+
+    private void checkIndex(int index, int length) {
+        if (length < 0 || index < 0 || index > writerIndex - length) {
+            throw new IndexOutOfBoundsException("index: " + index + ", length: " + length + " (writerIndex: " + writerIndex + ")");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(ridx: " + readerIndex + ", widx: " + writerIndex + ", components: " + components.size() + ", refCnt: " + refCnt() + ')';
+    }
+
+    private static final class Component {
+        /**
+         * Slice over readable bytes of the added buffer
+         */
+        private final PooledBuffer buffer;
+        /**
+         * Index of the first byte of the component in the composite
+         */
+        private int offset;
+
+        Component(PooledBuffer buffer, int offset) {
+            this.buffer = buffer;
+            this.offset = offset;
+        }
+
+        int length() {
+            return buffer.writerIndex();
+        }
+
+        int end() {
+            return offset + length();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package io.lighty.buffer;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Region of a file written to a channel with {@link FileChannel#transferTo(long, long, WritableByteChannel)}, so
+ * bytes go from the file to the socket without passing through buffers. <br/>
+ * The file is owned by the region and closed once it is deallocated. Not thread safe except for reference counting.
+ */
+public final class FileRegion extends AbstractReferenceCounted {
+
+    private final FileChannel file;
+    private final long position;
+    private final long count;
+    private long transferred;
+
+    /**
+     * @param file     file to transfer from, owned by the region from now on
+     * @param position position in {@code file} of the first byte to transfer
+     * @param count    number of bytes to transfer
+     */
+    public FileRegion(FileChannel file, long position, long count) {
+        if (file == null) {
+            throw new IllegalArgumentException("file");
+        }
+        if (position < 0) {
+            throw new IllegalArgumentException("position must be >= 0");
+        }
+        if (count < 0) {
+            throw new IllegalArgumentException("count must be >= 0");
+        }
+        this.file = file;
+        this.position = position;
+        this.count = count;
+    }
+
+    /**
+     * @return region over the whole file at {@code path}
+     */
+    public static FileRegion open(Path path) throws IOException {
+        FileChannel file = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new FileRegion(file, 0, file.size());
+        } catch (Throwable e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    public long position() {
+        return position;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    /**
+     * @return number of bytes transferred so far
+     */
+    public long transferred() {
+        return transferred;
+    }
+
+    public boolean isDone() {
+        return transferred == count;
+    }
+
+    /**
+     * Transfers bytes following those transferred so far to {@code target}
+     *
+     * @return number of bytes transferred, possibly {@code 0} if {@code target} can not take more
+     */
+    public long transferTo(WritableByteChannel target) throws IOException {
+        ensureAccessible();
+        long remaining = count - transferred;
+        if (remaining == 0) {
+            return 0;
+        }
+
+        long written = file.transferTo(position + transferred, remaining, target);
+        if (written > 0) {
+            transferred += written;
+        } else if (file.size() < position + count) {
+            // would never complete otherwise
+            throw new IOException("file size " + file.size() + " is smaller than region end " + (position + count));
+        }
+        return written;
+    }
+
+    @Override
+    public FileRegion retain() {
+        return (FileRegion) super.retain();
+    }
+
+    @Override
+    public FileRegion retain(int increment) {
+        return (FileRegion) super.retain(increment);
+    }
+
+    @Override
+    public FileRegion touch(Object hint) {
+        return this;
+    }
+
+    @Override
+    protected void deallocate() {
+        try {
+            file.close();
+        } catch (IOException ignore) {
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(position: " + position + ", count: " + count + ", transferred: " + transferred + ", refCnt: " + refCnt() + ')';
+    }
+}
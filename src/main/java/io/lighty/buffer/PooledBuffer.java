@@ -0,0 +1,415 @@
+package io.lighty.buffer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Reference counted fixed capacity buffer with independent reader and writer indexes. <br/>
+ * Bytes between {@code readerIndex} and {@code writerIndex} are readable, bytes between {@code writerIndex} and
+ * {@code capacity} are writable. Slices and duplicates have own indexes but share memory and the reference count with
+ * the buffer they were derived from. When the count drops to zero the memory is given back to the
+ * {@link ByteBufferPool} it was acquired from. Pooled buffers are watched by the {@link ResourceLeakDetector}. <br/>
+ * Not thread safe except for reference counting.
+ */
+public class PooledBuffer implements ReferenceCounted {
+
+    private final Allocation allocation;
+    /**
+     * View of the memory of this buffer, index {@code 0} is the first byte of the buffer
+     */
+    private final ByteBuffer memory;
+    private int readerIndex;
+    private int writerIndex;
+
+    private PooledBuffer(Allocation allocation, ByteBuffer memory, int readerIndex, int writerIndex) {
+        this.allocation = allocation;
+        this.memory = memory;
+        this.readerIndex = readerIndex;
+        this.writerIndex = writerIndex;
+    }
+
+    /**
+     * @return empty buffer of at least {@code capacity} bytes acquired from {@code pool}
+     */
+    public static PooledBuffer allocate(ByteBufferPool pool, int capacity, boolean direct) {
+        if (pool == null) {
+            throw new IllegalArgumentException("pool");
+        }
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity must be >= 0");
+        }
+        ByteBuffer buffer = pool.acquire(capacity, direct);
+        buffer.clear();
+        return new PooledBuffer(new Allocation(pool, buffer), buffer.duplicate(), 0, 0);
+    }
+
+    /**
+     * @return buffer whose readable bytes are the remaining bytes of {@code buffer}, given back to {@code pool} when
+     * released or left to the garbage collector if {@code pool} is {@code null}
+     */
+    public static PooledBuffer wrap(ByteBuffer buffer, ByteBufferPool pool) {
+        if (buffer == null) {
+            throw new IllegalArgumentException("buffer");
+        }
+        ByteBuffer memory = buffer.duplicate();
+        memory.limit(memory.capacity());
+        return new PooledBuffer(new Allocation(pool, buffer), memory, buffer.position(), buffer.limit());
+    }
+
+    /**
+     * @return unpooled buffer whose readable bytes are {@code bytes}
+     */
+    public static PooledBuffer wrap(byte[] bytes) {
+        return wrap(ByteBuffer.wrap(bytes), null);
+    }
+
+    public int capacity() {
+        return memory.capacity();
+    }
+
+    public boolean isDirect() {
+        return memory.isDirect();
+    }
+
+    public int readerIndex() {
+        return readerIndex;
+    }
+
+    public PooledBuffer readerIndex(int readerIndex) {
+        if (readerIndex < 0 || readerIndex > writerIndex) {
+            throw new IndexOutOfBoundsException("readerIndex: " + readerIndex + " (writerIndex: " + writerIndex + ")");
+        }
+        this.readerIndex = readerIndex;
+        return this;
+    }
+
+    public int writerIndex() {
+        return writerIndex;
+    }
+
+    public PooledBuffer writerIndex(int writerIndex) {
+        if (writerIndex < readerIndex || writerIndex > capacity()) {
+            throw new IndexOutOfBoundsException("writerIndex: " + writerIndex + " (readerIndex: " + readerIndex + ", capacity: " + capacity() + ")");
+        }
+        this.writerIndex = writerIndex;
+        return this;
+    }
+
+    public int readableBytes() {
+        return writerIndex - readerIndex;
+    }
+
+    public int writableBytes() {
+        return capacity() - writerIndex;
+    }
+
+    public boolean isReadable() {
+        return writerIndex > readerIndex;
+    }
+
+    /**
+     * Resets both indexes, the content is left as is
+     */
+    public PooledBuffer clear() {
+        readerIndex = writerIndex = 0;
+        return this;
+    }
+
+    /**
+     * Moves readable bytes to the start of the buffer
+     */
+    public PooledBuffer discardReadBytes() {
+        ensureAccessible();
+        if (readerIndex == 0) {
+            return this;
+        }
+        int readable = readableBytes();
+        if (readable > 0) {
+            ByteBuffer src = memory.duplicate();
+            src.limit(writerIndex).position(readerIndex);
+            memory.clear();
+            memory.put(src);
+        }
+        readerIndex = 0;
+        writerIndex = readable;
+        return this;
+    }
+
+    public byte getByte(int index) {
+        ensureAccessible();
+        checkIndex(index, 1, writerIndex);
+        return memory.get(index);
+    }
+
+    /**
+     * Copies {@code length} bytes from {@code index} into {@code dst}, indexes are not modified
+     */
+    public PooledBuffer getBytes(int index, byte[] dst, int offset, int length) {
+        ensureAccessible();
+        checkIndex(index, length, writerIndex);
+        view(index, length).get(dst, offset, length);
+        return this;
+    }
+
+    public byte readByte() {
+        byte b = getByte(readerIndex);
+        readerIndex++;
+        return b;
+    }
+
+    public PooledBuffer readBytes(byte[] dst) {
+        return readBytes(dst, 0, dst.length);
+    }
+
+    public PooledBuffer readBytes(byte[] dst, int offset, int length) {
+        ensureAccessible();
+        checkIndex(readerIndex, length, writerIndex);
+        view(readerIndex, length).get(dst, offset, length);
+        readerIndex += length;
+        return this;
+    }
+
+    /**
+     * Transfers readable bytes into {@code dst} until either is exhausted
+     */
+    public PooledBuffer readBytes(ByteBuffer dst) {
+        ensureAccessible();
+        int length = Math.min(readableBytes(), dst.remaining());
+        dst.put(view(readerIndex, length));
+        readerIndex += length;
+        return this;
+    }
+
+    /**
+     * Writes readable bytes to {@code channel}
+     *
+     * @return number of bytes written
+     */
+    public int readBytes(WritableByteChannel channel) throws IOException {
+        ensureAccessible();
+        int written = channel.write(view(readerIndex, readableBytes()));
+        readerIndex += written;
+        return written;
+    }
+
+    public PooledBuffer writeByte(int value) {
+        ensureAccessible();
+        checkIndex(writerIndex, 1, capacity());
+        memory.put(writerIndex++, (byte) value);
+        return this;
+    }
+
+    public PooledBuffer writeBytes(byte[] src) {
+        return writeBytes(src, 0, src.length);
+    }
+
+    public PooledBuffer writeBytes(byte[] src, int offset, int length) {
+        ensureAccessible();
+        checkIndex(writerIndex, length, capacity());
+        view(writerIndex, length).put(src, offset, length);
+        writerIndex += length;
+        return this;
+    }
+
+    /**
+     * Transfers remaining bytes of {@code src}, which must fit into writable bytes
+     */
+    public PooledBuffer writeBytes(ByteBuffer src) {
+        ensureAccessible();
+        int length = src.remaining();
+        checkIndex(writerIndex, length, capacity());
+        view(writerIndex, length).put(src);
+        writerIndex += length;
+        return this;
+    }
+
+    /**
+     * Reads from {@code channel} into writable bytes
+     *
+     * @return number of bytes read, possibly {@code -1} on end of stream
+     */
+    public int writeBytes(ReadableByteChannel channel) throws IOException {
+        ensureAccessible();
+        int read = channel.read(view(writerIndex, writableBytes()));
+        if (read > 0) {
+            writerIndex += read;
+        }
+        return read;
+    }
+
+    /**
+     * @return copy of readable bytes, indexes are not modified
+     */
+    public byte[] toByteArray() {
+        ensureAccessible();
+        byte[] bytes = new byte[readableBytes()];
+        view(readerIndex, bytes.length).get(bytes);
+        return bytes;
+    }
+
+    /**
+     * @return view of readable bytes sharing memory with this buffer, its position and limit are independent of
+     * this buffer indexes
+     */
+    public ByteBuffer nioBuffer() {
+        return nioBuffer(readerIndex, readableBytes());
+    }
+
+    /**
+     * @return view of {@code length} bytes from {@code index} sharing memory with this buffer
+     */
+    public ByteBuffer nioBuffer(int index, int length) {
+        ensureAccessible();
+        checkIndex(index, length, capacity());
+        return view(index, length).slice();
+    }
+
+    /**
+     * @return buffer over readable bytes sharing memory and reference count with this buffer
+     */
+    public PooledBuffer slice() {
+        return slice(readerIndex, readableBytes());
+    }
+
+    /**
+     * @return buffer over {@code length} bytes from {@code index} sharing memory and reference count with this buffer
+     */
+    public PooledBuffer slice(int index, int length) {
+        ensureAccessible();
+        checkIndex(index, length, capacity());
+        return new PooledBuffer(allocation, view(index, length).slice(), 0, length);
+    }
+
+    /**
+     * @return buffer with own copy of indexes sharing memory and reference count with this buffer
+     */
+    public PooledBuffer duplicate() {
+        ensureAccessible();
+        return new PooledBuffer(allocation, memory.duplicate(), readerIndex, writerIndex);
+    }
+
+    /**
+     * Same as {@link #slice()} followed by {@link #retain()}, so that the slice can be released on its own
+     */
+    public PooledBuffer retainedSlice() {
+        PooledBuffer slice = slice();
+        retain();
+        return slice;
+    }
+
+    /**
+     * Same as {@link #duplicate()} followed by {@link #retain()}, so that the duplicate can be released on its own
+     */
+    public PooledBuffer retainedDuplicate() {
+        PooledBuffer duplicate = duplicate();
+        retain();
+        return duplicate;
+    }
+
+    @Override
+    public int refCnt() {
+        return allocation.refCnt();
+    }
+
+    @Override
+    public PooledBuffer retain() {
+        return retain(1);
+    }
+
+    @Override
+    public PooledBuffer retain(int increment) {
+        allocation.retain(increment);
+        return this;
+    }
+
+    @Override
+    public boolean release() {
+        return release(1);
+    }
+
+    @Override
+    public boolean release(int decrement) {
+        return allocation.release(decrement);
+    }
+
+    @Override
+    public PooledBuffer touch(Object hint) {
+        allocation.touch(hint);
+        return this;
+    }
+
+    private ByteBuffer view(int index, int length) {
+        memory.clear();
+        memory.position(index);
+        memory.limit(index + length);
+        return memory;
+    }
+
+    private void ensureAccessible() {
+        allocation.ensureAccessible();
+    }
+
+    private static void checkIndex(int index, int length, int bound) {
+        if (length < 0 || index < 0 || index > bound - length) {
+            throw new IndexOutOfBoundsException("index: " + index + ", length: " + length + " (bound: " + bound + ")");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(ridx: " + readerIndex + ", widx: " + writerIndex + ", cap: " + capacity() + ", refCnt: " + refCnt() + ')';
+    }
+
+    /**
+     * Memory shared by a buffer, its slices and duplicates
+     */
+    private static final class Allocation extends AbstractReferenceCounted {
+
+        private final ByteBufferPool pool;
+        private final ByteBuffer buffer;
+        private final ResourceLeakDetector.Tracker leak;
+
+        Allocation(ByteBufferPool pool, ByteBuffer buffer) {
+            this.pool = pool;
+            this.buffer = buffer;
+            this.leak = pool != null ? ResourceLeakDetector.track(this) : null;
+        }
+
+        @Override
+        public Allocation retain(int increment) {
+            super.retain(increment);
+            if (leak != null) {
+                leak.record("retain");
+            }
+            return this;
+        }
+
+        @Override
+        public boolean release(int decrement) {
+            if (leak != null) {
+                leak.record("release");
+            }
+            return super.release(decrement);
+        }
+
+        @Override
+        public Allocation touch(Object hint) {
+            if (leak != null) {
+                leak.record(hint);
+            }
+            return this;
+        }
+
+        @Override
+        protected void deallocate() {
+            if (leak != null) {
+                leak.close();
+            }
+            if (pool != null) {
+                pool.release(buffer);
+            }
+        }
+    }
+}
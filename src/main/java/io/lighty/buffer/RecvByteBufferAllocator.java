@@ -10,6 +10,19 @@ public interface RecvByteBufferAllocator {
 
         ByteBuffer allocate(ByteBufferPool byteBufferPool);
 
+        /**
+         * Gives back a buffer returned by {@link #allocate(ByteBufferPool)} once its content was consumed
+         */
+        void release(ByteBufferPool byteBufferPool, ByteBuffer buffer);
+
+        /**
+         * Takes over content of a buffer returned by {@link #allocate(ByteBufferPool)} which was flipped for reading
+         *
+         * @return buffer with the same content owned by the caller and released to {@code byteBufferPool}, the passed
+         * buffer must not be released anymore
+         */
+        ByteBuffer detach(ByteBufferPool byteBufferPool, ByteBuffer buffer);
+
         int guess();
 
         void record(int bytesRead);
@@ -0,0 +1,43 @@
+package io.lighty.buffer;
+
+/**
+ * Object which is given back when its reference count drops to zero. <br/>
+ * A reference counted message passed to {@link io.lighty.pipeline.HandlerContext#fireMessageReceived(Object)} or
+ * {@link io.lighty.Channel#write(Object)} is owned by the receiver, which either passes it on or releases it.
+ */
+public interface ReferenceCounted {
+
+    /**
+     * @return current reference count, {@code 0} once deallocated
+     */
+    int refCnt();
+
+    /**
+     * Increments the reference count by one
+     */
+    ReferenceCounted retain();
+
+    /**
+     * Increments the reference count by {@code increment}
+     */
+    ReferenceCounted retain(int increment);
+
+    /**
+     * Decrements the reference count by one and deallocates the object if it reaches zero
+     *
+     * @return {@code true} if the object was deallocated
+     */
+    boolean release();
+
+    /**
+     * Decrements the reference count by {@code decrement} and deallocates the object if it reaches zero
+     *
+     * @return {@code true} if the object was deallocated
+     */
+    boolean release(int decrement);
+
+    /**
+     * Records {@code hint} as the last place the object was accessed at, reported if the object leaks
+     */
+    ReferenceCounted touch(Object hint);
+}
@@ -0,0 +1,199 @@
+package io.lighty.buffer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Detects pooled buffers which were garbage collected without being released. <br/>
+ * A tracked buffer remembers where it was allocated and the last places it was touched at, which are reported once
+ * it turns out to be leaked. Leaks are looked for whenever another buffer is tracked. <br/>
+ * The level is taken from {@code io.lighty.leakDetection.level} ({@code disabled}, {@code sampled} or
+ * {@code paranoid}, {@code disabled} by default). In sampled mode one of {@code io.lighty.leakDetection.samplingInterval}
+ * allocations is tracked (100 by default) and only its allocation site is captured with a stack trace, which is cheap
+ * enough to keep enabled in production. In paranoid mode every buffer is tracked with a stack trace for every touch.
+ */
+public final class ResourceLeakDetector {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResourceLeakDetector.class);
+
+    private static final int MAX_RECORDS = Math.max(1, Integer.getInteger("io.lighty.leakDetection.maxRecords", 4));
+
+    private static final ReferenceQueue<Object> REFERENCE_QUEUE = new ReferenceQueue<>();
+    /**
+     * Keeps trackers reachable until their buffer is either released or collected
+     */
+    private static final Set<Tracker> TRACKERS = ConcurrentHashMap.newKeySet();
+    private static final AtomicLong LEAK_COUNT = new AtomicLong();
+
+    private static volatile Level level = Level.parse(System.getProperty("io.lighty.leakDetection.level", "disabled"));
+    private static volatile int samplingInterval = Math.max(1, Integer.getInteger("io.lighty.leakDetection.samplingInterval", 100));
+
+    private ResourceLeakDetector() {
+    }
+
+    public enum Level {
+        /**
+         * No buffer is tracked
+         */
+        DISABLED,
+        /**
+         * One of {@link #getSamplingInterval()} buffers is tracked, touches are recorded without stack traces
+         */
+        SAMPLED,
+        /**
+         * Every buffer is tracked with stack traces of touches, for tests
+         */
+        PARANOID;
+
+        static Level parse(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                logger.warn("unknown leak detection level {}, leak detection disabled", value);
+                return DISABLED;
+            }
+        }
+    }
+
+    public static Level getLevel() {
+        return level;
+    }
+
+    public static void setLevel(Level level) {
+        if (level == null) {
+            throw new IllegalArgumentException("level");
+        }
+        ResourceLeakDetector.level = level;
+    }
+
+    public static int getSamplingInterval() {
+        return samplingInterval;
+    }
+
+    public static void setSamplingInterval(int samplingInterval) {
+        if (samplingInterval <= 0) {
+            throw new IllegalArgumentException("samplingInterval must be > 0");
+        }
+        ResourceLeakDetector.samplingInterval = samplingInterval;
+    }
+
+    /**
+     * @return number of leaks reported so far
+     */
+    public static long getLeakCount() {
+        return LEAK_COUNT.get();
+    }
+
+    /**
+     * @param referent object which is unreachable exactly when the tracked resource is
+     * @return tracker to record touches on and to close on release, {@code null} if the resource is not tracked
+     */
+    static Tracker track(Object referent) {
+        Level level = ResourceLeakDetector.level;
+        if (level == Level.DISABLED) {
+            return null;
+        }
+        if (level == Level.SAMPLED && ThreadLocalRandom.current().nextInt(samplingInterval) != 0) {
+            return null;
+        }
+
+        reportLeaks();
+        Tracker tracker = new Tracker(referent, level == Level.PARANOID);
+        TRACKERS.add(tracker);
+        return tracker;
+    }
+
+    private static void reportLeaks() {
+        Tracker tracker;
+        while ((tracker = (Tracker) REFERENCE_QUEUE.poll()) != null) {
+            if (TRACKERS.remove(tracker)) {
+                LEAK_COUNT.incrementAndGet();
+                if (logger.isErrorEnabled()) {
+                    logger.error("LEAK: buffer was garbage collected without being released, "
+                            + "use -Dio.lighty.leakDetection.level=paranoid to track every buffer" + tracker.records());
+                }
+            }
+        }
+    }
+
+    static final class Tracker extends PhantomReference<Object> {
+
+        private final Record allocation = new Record("allocated", true);
+        private final Deque<Record> records = new ArrayDeque<>(MAX_RECORDS);
+        private final boolean stackTraces;
+
+        private Tracker(Object referent, boolean stackTraces) {
+            super(referent, REFERENCE_QUEUE);
+            this.stackTraces = stackTraces;
+        }
+
+        void record(Object hint) {
+            Record record = new Record(hint, stackTraces);
+            synchronized (records) {
+                if (records.size() == MAX_RECORDS) {
+                    records.removeFirst();
+                }
+                records.addLast(record);
+            }
+        }
+
+        void close() {
+            TRACKERS.remove(this);
+            clear();
+        }
+
+        private String records() {
+            StringBuilder sb = new StringBuilder();
+            synchronized (records) {
+                int i = records.size();
+                for (Iterator<Record> it = records.descendingIterator(); it.hasNext(); ) {
+                    sb.append(System.lineSeparator()).append('#').append(i--).append(": ").append(it.next());
+                }
+            }
+            sb.append(System.lineSeparator()).append("Created at: ").append(allocation);
+            return sb.toString();
+        }
+    }
+
+    private static final class Record extends Throwable {
+
+        private static final long serialVersionUID = 2911456237513826165L;
+
+        private final Object hint;
+
+        Record(Object hint, boolean stackTrace) {
+            super(null, null, false, stackTrace);
+            this.hint = hint;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder(String.valueOf(hint));
+            boolean skip = true;
+            for (StackTraceElement element : getStackTrace()) {
+                // skip frames of the detector and the buffer
+                skip = skip && isInternal(element.getClassName());
+                if (!skip) {
+                    sb.append(System.lineSeparator()).append("\tat ").append(element);
+                }
+            }
+            return sb.toString();
+        }
+
+        private static boolean isInternal(String className) {
+            return className.startsWith(ResourceLeakDetector.class.getName())
+                    || className.startsWith(PooledBuffer.class.getName())
+                    || className.equals(Buffers.class.getName());
+        }
+    }
+}
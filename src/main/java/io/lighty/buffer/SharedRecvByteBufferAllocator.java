@@ -0,0 +1,89 @@
+package io.lighty.buffer;
+
+import io.lighty.concurrent.SingleThreadEventExecutor;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Allocator which reads every channel of an event loop into one direct buffer owned by the loop. <br/>
+ * Channels keep no receive state and no buffer is acquired per read, only the bytes actually received are copied out
+ * of the shared buffer. Suits large numbers of mostly idle connections, where per channel guesses of the adaptive
+ * allocator add up. Reads outside of event executor threads fall back to buffers acquired from the pool.
+ */
+public class SharedRecvByteBufferAllocator implements RecvByteBufferAllocator {
+
+    static final int DEFAULT_CAPACITY = 65536;
+
+    public static final RecvByteBufferAllocator DEFAULT = new SharedRecvByteBufferAllocator(DEFAULT_CAPACITY);
+
+    private final int capacity;
+    private final ThreadLocal<ByteBuffer> sharedBuffer = ThreadLocal.withInitial(this::newSharedBuffer);
+    private final Handle handle = new SharedHandle();
+
+    /**
+     * @param capacity size of the buffer each event loop reads into, the most one read can return
+     */
+    public SharedRecvByteBufferAllocator(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be > 0");
+        }
+        this.capacity = capacity;
+    }
+
+    private ByteBuffer newSharedBuffer() {
+        SingleThreadEventExecutor executor = SingleThreadEventExecutor.currentExecutor();
+        if (executor == null) {
+            return null;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(capacity);
+        executor.terminationFuture().addListener(future -> Buffers.free(buffer));
+        return buffer;
+    }
+
+    @Override
+    public Handle newHandle() {
+        return handle;
+    }
+
+    private final class SharedHandle implements Handle {
+
+        @Override
+        public ByteBuffer allocate(ByteBufferPool byteBufferPool) {
+            ByteBuffer buffer = sharedBuffer.get();
+            if (buffer == null) {
+                return byteBufferPool.acquire(capacity, true);
+            }
+            buffer.clear();
+            return buffer;
+        }
+
+        @Override
+        public void release(ByteBufferPool byteBufferPool, ByteBuffer buffer) {
+            if (buffer != sharedBuffer.get()) {
+                byteBufferPool.release(buffer);
+            }
+        }
+
+        @Override
+        public ByteBuffer detach(ByteBufferPool byteBufferPool, ByteBuffer buffer) {
+            if (buffer != sharedBuffer.get()) {
+                return buffer;
+            }
+            // only what was received leaves the shared buffer
+            ByteBuffer copy = byteBufferPool.acquire(buffer.remaining(), false);
+            copy.put(buffer);
+            copy.flip();
+            return copy;
+        }
+
+        @Override
+        public int guess() {
+            return capacity;
+        }
+
+        @Override
+        public void record(int bytesRead) {
+        }
+    }
+}
@@ -1,10 +1,7 @@
 package io.lighty.concurrent;
 
 import java.util.Collections;
-import java.util.Iterator;
 import java.util.List;
-import java.util.PriorityQueue;
-import java.util.Queue;
 import java.util.concurrent.AbstractExecutorService;
 import java.util.concurrent.Callable;
 import java.util.concurrent.RunnableFuture;
@@ -15,14 +12,22 @@ public abstract class AbstractEventExecutor extends AbstractExecutorService impl
     public static final long PURGE_TASK_INTERVAL = TimeUnit.SECONDS.toNanos(5);
 
     private final EventExecutorGroup parent;
-    private final Queue<ScheduledTask<?>> delayedTaskQueue = new PriorityQueue<>();
+    private final DelayedTaskQueue delayedTaskQueue;
 
     protected AbstractEventExecutor() {
         this(null);
     }
 
     protected AbstractEventExecutor(EventExecutorGroup parent) {
+        this(parent, DelayedTaskQueue.newPriorityQueue());
+    }
+
+    protected AbstractEventExecutor(EventExecutorGroup parent, DelayedTaskQueue delayedTaskQueue) {
+        if (delayedTaskQueue == null) {
+            throw new IllegalArgumentException("delayedTaskQueue");
+        }
         this.parent = parent;
+        this.delayedTaskQueue = delayedTaskQueue;
     }
 
     @Override
@@ -67,27 +72,29 @@ public abstract class AbstractEventExecutor extends AbstractExecutorService impl
     }
 
     protected ScheduledTask<?> fetchDelayedTask() {
-        ScheduledTask<?> delayedTask = delayedTaskQueue.peek();
-        if (delayedTask == null) {
-            return null;
-        }
-        long nanoTime = ScheduledTask.nanos();
-        if (delayedTask.triggerTime() <= nanoTime) {
-            delayedTaskQueue.remove();
-            return delayedTask;
-        }
-        return null;
+        return delayedTaskQueue.poll(ScheduledTask.nanos());
     }
 
-    protected ScheduledTask<?> peekDelayedTask() {
-        return delayedTaskQueue.peek();
+    void addDelayedTask(ScheduledTask<?> task) {
+        delayedTaskQueue.add(task);
+    }
+
+    /**
+     * @return nanoseconds left until the next delayed task may expire or {@code -1} if there are no delayed tasks
+     */
+    protected long delayedTaskDelayNanos() {
+        return delayedTaskQueue.delayNanos(ScheduledTask.nanos());
+    }
+
+    /**
+     * @param timeNanos current {@link System#nanoTime()}
+     */
+    protected long delayedTaskDelayNanos(long timeNanos) {
+        return delayedTaskQueue.delayNanos(ScheduledTask.nanos(timeNanos));
     }
 
     protected void cancelDelayedTasks() {
-        for (ScheduledTask<?> scheduledTask : delayedTaskQueue) {
-            scheduledTask.cancel();
-        }
-        delayedTaskQueue.clear();
+        delayedTaskQueue.cancelAll();
     }
 
     protected int pendingTasks() {
@@ -150,13 +157,7 @@ public abstract class AbstractEventExecutor extends AbstractExecutorService impl
     private final class PurgeTask implements Runnable {
         @Override
         public void run() {
-            Iterator<ScheduledTask<?>> i = delayedTaskQueue.iterator();
-            while (i.hasNext()) {
-                ScheduledTask<?> task = i.next();
-                if (task.isCancelled()) {
-                    i.remove();
-                }
-            }
+            delayedTaskQueue.purge();
         }
     }
 }
@@ -0,0 +1,62 @@
+package io.lighty.concurrent;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * {@link SingleThreadEventExecutor} without I/O which blocks on its task queue, for handlers too slow
+ * to run on an event loop.
+ */
+public final class DefaultEventExecutor extends SingleThreadEventExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(DefaultEventExecutor.class);
+
+    public DefaultEventExecutor() {
+        this(null);
+    }
+
+    public DefaultEventExecutor(EventExecutorGroup parent) {
+        this(parent, new ThreadPerTaskExecutor(new DefaultThreadFactory("lighty-event-executor")));
+    }
+
+    public DefaultEventExecutor(EventExecutorGroup parent, Executor executor) {
+        this(parent, executor, DEFAULT_MAX_PENDING_TASKS, RejectedTaskHandlers.reject());
+    }
+
+    /**
+     * @param maxPendingTasks     the maximum number of tasks which may wait in the task queue
+     * @param rejectedTaskHandler the handler to call when the task queue is full
+     */
+    public DefaultEventExecutor(EventExecutorGroup parent, Executor executor, int maxPendingTasks, RejectedTaskHandler rejectedTaskHandler) {
+        super(parent, false, executor, maxPendingTasks, rejectedTaskHandler);
+    }
+
+    @Override
+    protected Queue<Runnable> newTaskQueue(int maxPendingTasks) {
+        return new LinkedBlockingQueue<>(maxPendingTasks);
+    }
+
+    @Override
+    protected void run() {
+        for (; ; ) {
+            Runnable task = takeTask();
+            if (task != null) {
+                iterationStarted();
+                try {
+                    task.run();
+                } catch (Throwable t) {
+                    logger.warn("task raised an exception: ", t);
+                }
+                iterationFinished();
+            }
+
+            if (confirmShutdown()) {
+                break;
+            }
+        }
+    }
+}
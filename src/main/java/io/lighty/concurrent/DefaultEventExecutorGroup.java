@@ -0,0 +1,48 @@
+package io.lighty.concurrent;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Group of {@link DefaultEventExecutor}s. All handlers of a channel which are added with the executor returned by
+ * {@link #next(Object)} for that channel run on the same thread, in the order their events were fired.
+ */
+public final class DefaultEventExecutorGroup extends MultiThreadEventExecutorGroup {
+
+    private final EventExecutor[] executors;
+
+    public DefaultEventExecutorGroup(int nThreads) {
+        this(nThreads, new DefaultThreadFactory("lighty-event-executor"));
+    }
+
+    public DefaultEventExecutorGroup(int nThreads, ThreadFactory threadFactory) {
+        this(nThreads, threadFactory, SingleThreadEventExecutor.DEFAULT_MAX_PENDING_TASKS, RejectedTaskHandlers.reject());
+    }
+
+    /**
+     * @param maxPendingTasks     the maximum number of tasks which may wait in the task queue of each executor
+     * @param rejectedTaskHandler the handler to call when the task queue is full,
+     *                            e.g. {@link RejectedTaskHandlers#backoff} to stall the submitting event loop
+     */
+    public DefaultEventExecutorGroup(int nThreads, ThreadFactory threadFactory, int maxPendingTasks, RejectedTaskHandler rejectedTaskHandler) {
+        super(nThreads, threadFactory, maxPendingTasks, rejectedTaskHandler);
+        executors = children().toArray(new EventExecutor[0]);
+    }
+
+    @Override
+    protected EventExecutor newEventExecutor(Executor executor, Object... args) {
+        return new DefaultEventExecutor(this, executor, (Integer) args[0], (RejectedTaskHandler) args[1]);
+    }
+
+    /**
+     * @param key e.g. the channel, the same key always gets the same executor
+     */
+    public EventExecutor next(Object key) {
+        if (key == null) {
+            throw new IllegalArgumentException("key");
+        }
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return executors[(hash & Integer.MAX_VALUE) % executors.length];
+    }
+}
@@ -0,0 +1,64 @@
+package io.lighty.concurrent;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Store of delayed tasks owned by an {@link AbstractEventExecutor}. All methods are called from the executor thread. <br/>
+ * Times are measured in {@link ScheduledTask#nanos()}.
+ */
+public abstract class DelayedTaskQueue {
+
+    DelayedTaskQueue() {
+    }
+
+    /**
+     * @return binary heap store, O(log n) schedule, cancelled tasks are removed by periodic purge
+     */
+    public static DelayedTaskQueue newPriorityQueue() {
+        return new PriorityDelayedTaskQueue();
+    }
+
+    /**
+     * @return hashed timing wheel store with 512 ticks of 10 milliseconds
+     */
+    public static DelayedTaskQueue newHashedWheel() {
+        return newHashedWheel(HashedWheelDelayedTaskQueue.DEFAULT_TICK_DURATION, TimeUnit.NANOSECONDS, HashedWheelDelayedTaskQueue.DEFAULT_TICKS_PER_WHEEL);
+    }
+
+    /**
+     * @param tickDuration  the duration of one tick, tasks expire with at most this delay
+     * @param unit          the time unit of {@code tickDuration}
+     * @param ticksPerWheel the number of buckets in the wheel, rounded up to a power of two
+     * @return hashed timing wheel store, O(1) schedule and cancel, tasks expire on tick boundaries
+     */
+    public static DelayedTaskQueue newHashedWheel(long tickDuration, TimeUnit unit, int ticksPerWheel) {
+        return new HashedWheelDelayedTaskQueue(tickDuration, unit, ticksPerWheel);
+    }
+
+    abstract void add(ScheduledTask<?> task);
+
+    /**
+     * Called when a task stored in this queue has been cancelled.
+     *
+     * @return {@code true} if the task has to be removed by {@link #remove(ScheduledTask)} right away
+     */
+    abstract boolean removeOnCancel();
+
+    abstract void remove(ScheduledTask<?> task);
+
+    /**
+     * @return removed task which has expired at {@code nanoTime} or {@code null}
+     */
+    abstract ScheduledTask<?> poll(long nanoTime);
+
+    /**
+     * @return nanoseconds left until the next task may expire or {@code -1} if the queue is empty
+     */
+    abstract long delayNanos(long nanoTime);
+
+    abstract void purge();
+
+    abstract void cancelAll();
+
+    abstract int size();
+}
@@ -0,0 +1,18 @@
+package io.lighty.concurrent;
+
+/**
+ * Creates the strategy {@link MultiThreadEventExecutorGroup#next()} uses to pick one of its children.
+ *
+ * @see ExecutorChoosers
+ */
+public interface ExecutorChooserFactory {
+
+    /**
+     * @param executors children of the group, never modified by the group
+     */
+    ExecutorChooser newChooser(EventExecutor[] executors);
+
+    interface ExecutorChooser {
+        EventExecutor next();
+    }
+}
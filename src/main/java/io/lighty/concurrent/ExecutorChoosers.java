@@ -0,0 +1,144 @@
+package io.lighty.concurrent;
+
+import io.lighty.concurrent.ExecutorChooserFactory.ExecutorChooser;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToIntFunction;
+
+public final class ExecutorChoosers {
+
+    private static final ToIntFunction<EventExecutor> PENDING_TASKS = ExecutorChoosers::pendingTasks;
+
+    private static final ExecutorChooserFactory ROUND_ROBIN = executors -> isPowerOfTwo(executors.length)
+            ? new PowerOfTwoExecutorChooser(executors) : new GenericExecutorChooser(executors);
+
+    private ExecutorChoosers() {
+    }
+
+    /**
+     * @return factory of choosers which hand out executors one after another
+     */
+    public static ExecutorChooserFactory roundRobin() {
+        return ROUND_ROBIN;
+    }
+
+    /**
+     * @return factory of choosers which pick the executor with the fewest tasks waiting in its task queue
+     */
+    public static ExecutorChooserFactory leastPendingTasks() {
+        return leastLoaded(PENDING_TASKS);
+    }
+
+    /**
+     * @param load live load score of an executor, lower is better
+     * @return factory of choosers which scan all executors and pick the one with the lowest load.
+     * Ties are broken round-robin.
+     */
+    public static ExecutorChooserFactory leastLoaded(ToIntFunction<? super EventExecutor> load) {
+        if (load == null) {
+            throw new IllegalArgumentException("load");
+        }
+        return executors -> new LeastLoadedExecutorChooser(executors, load);
+    }
+
+    /**
+     * @param load live load score of an executor, lower is better
+     * @return factory of choosers which sample two random executors and pick the less loaded of them.
+     * Costs two load reads per pick regardless of the number of executors.
+     */
+    public static ExecutorChooserFactory powerOfTwoChoices(ToIntFunction<? super EventExecutor> load) {
+        if (load == null) {
+            throw new IllegalArgumentException("load");
+        }
+        return executors -> executors.length == 1 ? ROUND_ROBIN.newChooser(executors) : new PowerOfTwoChoicesExecutorChooser(executors, load);
+    }
+
+    /**
+     * @return number of tasks waiting in the task queue of {@code executor} or {@code 0} if it is unknown
+     */
+    public static int pendingTasks(EventExecutor executor) {
+        return executor instanceof SingleThreadEventExecutor ? ((SingleThreadEventExecutor) executor).queuedTasks() : 0;
+    }
+
+    private static boolean isPowerOfTwo(int val) {
+        return (val & -val) == val;
+    }
+
+    private static final class PowerOfTwoExecutorChooser implements ExecutorChooser {
+        private final AtomicInteger index = new AtomicInteger();
+        private final EventExecutor[] executors;
+
+        PowerOfTwoExecutorChooser(EventExecutor[] executors) {
+            this.executors = executors;
+        }
+
+        @Override
+        public EventExecutor next() {
+            return executors[index.getAndIncrement() & executors.length - 1];
+        }
+    }
+
+    private static final class GenericExecutorChooser implements ExecutorChooser {
+        private final AtomicInteger index = new AtomicInteger();
+        private final EventExecutor[] executors;
+
+        GenericExecutorChooser(EventExecutor[] executors) {
+            this.executors = executors;
+        }
+
+        @Override
+        public EventExecutor next() {
+            return executors[Math.abs(index.getAndIncrement() % executors.length)];
+        }
+    }
+
+    private static final class LeastLoadedExecutorChooser implements ExecutorChooser {
+        private final AtomicInteger index = new AtomicInteger();
+        private final EventExecutor[] executors;
+        private final ToIntFunction<? super EventExecutor> load;
+
+        LeastLoadedExecutorChooser(EventExecutor[] executors, ToIntFunction<? super EventExecutor> load) {
+            this.executors = executors;
+            this.load = load;
+        }
+
+        @Override
+        public EventExecutor next() {
+            int length = executors.length;
+            int start = Math.abs(index.getAndIncrement() % length);
+            EventExecutor chosen = executors[start];
+            int minLoad = load.applyAsInt(chosen);
+            for (int i = 1; i < length && minLoad > 0; i++) {
+                EventExecutor executor = executors[(start + i) % length];
+                int executorLoad = load.applyAsInt(executor);
+                if (executorLoad < minLoad) {
+                    chosen = executor;
+                    minLoad = executorLoad;
+                }
+            }
+            return chosen;
+        }
+    }
+
+    private static final class PowerOfTwoChoicesExecutorChooser implements ExecutorChooser {
+        private final EventExecutor[] executors;
+        private final ToIntFunction<? super EventExecutor> load;
+
+        PowerOfTwoChoicesExecutorChooser(EventExecutor[] executors, ToIntFunction<? super EventExecutor> load) {
+            this.executors = executors;
+            this.load = load;
+        }
+
+        @Override
+        public EventExecutor next() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int first = random.nextInt(executors.length);
+            // second sample is drawn from the remaining executors so the two choices always differ
+            int second = (first + 1 + random.nextInt(executors.length - 1)) % executors.length;
+            EventExecutor a = executors[first];
+            EventExecutor b = executors[second];
+            return load.applyAsInt(b) < load.applyAsInt(a) ? b : a;
+        }
+    }
+}
@@ -42,12 +42,11 @@ public final class GlobalEventExecutor extends AbstractEventExecutor {
 
         BlockingQueue<Runnable> taskQueue = (BlockingQueue<Runnable>) this.taskQueue;
         for (; ; ) {
-            ScheduledTask<?> delayedTask = peekDelayedTask();
+            long delayNanos = delayedTaskDelayNanos();
 
-            if (delayedTask == null) {
+            if (delayNanos < 0) {
                 return taskQueue.poll();
             } else {
-                long delayNanos = delayedTask.getDelayNanos();
                 Runnable task = null;
                 if (delayNanos > 0) {
                     try {
@@ -0,0 +1,218 @@
+package io.lighty.concurrent;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hashed timing wheel. A task is put into the bucket of the tick on which it expires and is unlinked from it
+ * in O(1) when cancelled. Buckets are visited as ticks pass, tasks whose remaining rounds dropped to zero
+ * are moved to the expired queue.
+ */
+final class HashedWheelDelayedTaskQueue extends DelayedTaskQueue {
+
+    static final long DEFAULT_TICK_DURATION = TimeUnit.MILLISECONDS.toNanos(10);
+    static final int DEFAULT_TICKS_PER_WHEEL = 512;
+
+    private final Bucket[] wheel;
+    private final int mask;
+    private final long tickNanos;
+    private final long startTime;
+    private final Queue<ScheduledTask<?>> expired = new ArrayDeque<>();
+
+    /**
+     * Next tick to process
+     */
+    private long tick;
+    /**
+     * First tick not before {@link #tick} whose bucket is not empty or -1 if it has to be looked up again
+     */
+    private long nextBucketTick = -1;
+    private int size;
+
+    HashedWheelDelayedTaskQueue(long tickDuration, TimeUnit unit, int ticksPerWheel) {
+        this(tickDuration, unit, ticksPerWheel, ScheduledTask.nanos());
+    }
+
+    HashedWheelDelayedTaskQueue(long tickDuration, TimeUnit unit, int ticksPerWheel, long startTime) {
+        if (unit == null) {
+            throw new IllegalArgumentException("unit");
+        }
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("tickDuration must be > 0");
+        }
+        if (ticksPerWheel < 1 || ticksPerWheel > 1 << 30) {
+            throw new IllegalArgumentException("ticksPerWheel must be in range [1...2^30]");
+        }
+
+        int wheelSize = Integer.highestOneBit(ticksPerWheel);
+        if (wheelSize < ticksPerWheel) {
+            wheelSize <<= 1;
+        }
+
+        wheel = new Bucket[wheelSize];
+        for (int i = 0; i < wheel.length; i++) {
+            wheel[i] = new Bucket();
+        }
+        mask = wheelSize - 1;
+        tickNanos = unit.toNanos(tickDuration);
+        this.startTime = startTime;
+    }
+
+    @Override
+    void add(ScheduledTask<?> task) {
+        size++;
+        long expiryTick = (task.triggerTime() - startTime + tickNanos - 1) / tickNanos;
+        if (expiryTick < tick) {
+            expired.add(task);
+            return;
+        }
+
+        task.rounds = (expiryTick - tick) / wheel.length;
+        wheel[(int) (expiryTick & mask)].add(task);
+
+        long bucketTick = tick + ((expiryTick - tick) & mask);
+        if (bucketTick < nextBucketTick) {
+            nextBucketTick = bucketTick;
+        }
+    }
+
+    @Override
+    boolean removeOnCancel() {
+        return true;
+    }
+
+    @Override
+    void remove(ScheduledTask<?> task) {
+        Bucket bucket = task.bucket;
+        if (bucket != null) {
+            bucket.remove(task);
+            size--;
+            if (bucket.head == null && nextBucketTick >= 0 && bucket == wheel[(int) (nextBucketTick & mask)]) {
+                nextBucketTick = -1;
+            }
+        }
+    }
+
+    @Override
+    ScheduledTask<?> poll(long nanoTime) {
+        while (startTime + tick * tickNanos <= nanoTime) {
+            expireBucket(wheel[(int) (tick & mask)]);
+            tick++;
+        }
+        if (nextBucketTick < tick) {
+            nextBucketTick = -1;
+        }
+
+        ScheduledTask<?> task = expired.poll();
+        if (task != null) {
+            size--;
+        }
+        return task;
+    }
+
+    private void expireBucket(Bucket bucket) {
+        ScheduledTask<?> task = bucket.head;
+        while (task != null) {
+            ScheduledTask<?> next = task.next;
+            if (task.rounds <= 0) {
+                bucket.remove(task);
+                expired.add(task);
+            } else {
+                task.rounds--;
+            }
+            task = next;
+        }
+    }
+
+    @Override
+    long delayNanos(long nanoTime) {
+        if (size == 0) {
+            return -1;
+        }
+        if (!expired.isEmpty()) {
+            return 0;
+        }
+
+        // wake up on the first tick which has a bucket to visit rather than on every tick,
+        // the wheel is only scanned again once that bucket has been visited or emptied
+        if (nextBucketTick < 0) {
+            long nextTick = tick;
+            for (int i = 0; i < wheel.length; i++, nextTick++) {
+                if (wheel[(int) (nextTick & mask)].head != null) {
+                    break;
+                }
+            }
+            nextBucketTick = nextTick;
+        }
+        return Math.max(0, startTime + nextBucketTick * tickNanos - nanoTime);
+    }
+
+    @Override
+    void purge() {
+        // cancelled tasks are unlinked eagerly
+    }
+
+    @Override
+    void cancelAll() {
+        for (Bucket bucket : wheel) {
+            ScheduledTask<?> task;
+            while ((task = bucket.head) != null) {
+                bucket.remove(task);
+                task.cancel();
+            }
+        }
+        for (ScheduledTask<?> task : expired) {
+            task.cancel();
+        }
+        expired.clear();
+        nextBucketTick = -1;
+        size = 0;
+    }
+
+    @Override
+    int size() {
+        return size;
+    }
+
+    static final class Bucket {
+        private ScheduledTask<?> head;
+        private ScheduledTask<?> tail;
+
+        void add(ScheduledTask<?> task) {
+            task.bucket = this;
+            if (head == null) {
+                head = tail = task;
+            } else {
+                tail.next = task;
+                task.prev = tail;
+                tail = task;
+            }
+        }
+
+        void remove(ScheduledTask<?> task) {
+            ScheduledTask<?> next = task.next;
+            if (task.prev != null) {
+                task.prev.next = next;
+            }
+            if (next != null) {
+                next.prev = task.prev;
+            }
+
+            if (task == head) {
+                if (task == tail) {
+                    tail = null;
+                    head = null;
+                } else {
+                    head = next;
+                }
+            } else if (task == tail) {
+                tail = task.prev;
+            }
+
+            task.prev = null;
+            task.next = null;
+            task.bucket = null;
+        }
+    }
+}
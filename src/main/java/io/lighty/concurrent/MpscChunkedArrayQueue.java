@@ -0,0 +1,265 @@
+package io.lighty.concurrent;
+
+import java.util.AbstractQueue;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * Bounded multi-producer single-consumer queue backed by linked array chunks. <br/>
+ * Producers claim a slot by CAS on the producer index and publish the element into the chunk owning that slot,
+ * so there is one allocation per chunk instead of one node per element. {@link #offer(Object)} returns
+ * {@code false} once {@code capacity} elements are pending. {@link #poll()} and {@link #peek()} must only be called
+ * from the single consumer thread. {@link #size()} is O(1). {@link #iterator()} may be used from any thread.
+ *
+ * @param <E> the type of elements held in this queue
+ */
+public final class MpscChunkedArrayQueue<E> extends AbstractQueue<E> {
+
+    private static final int DEFAULT_CHUNK_SIZE = 1024;
+
+    // field updaters can only be created for the raw class
+    @SuppressWarnings("rawtypes")
+    private static final AtomicLongFieldUpdater<MpscChunkedArrayQueue> PRODUCER_INDEX_UPDATER = AtomicLongFieldUpdater.newUpdater(MpscChunkedArrayQueue.class, "producerIndex");
+    @SuppressWarnings("rawtypes")
+    private static final AtomicLongFieldUpdater<MpscChunkedArrayQueue> CONSUMER_INDEX_UPDATER = AtomicLongFieldUpdater.newUpdater(MpscChunkedArrayQueue.class, "consumerIndex");
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<MpscChunkedArrayQueue, Chunk> PRODUCER_CHUNK_UPDATER = AtomicReferenceFieldUpdater.newUpdater(MpscChunkedArrayQueue.class, Chunk.class, "producerChunk");
+    private static final AtomicReferenceFieldUpdater<Chunk, Chunk> NEXT_UPDATER = AtomicReferenceFieldUpdater.newUpdater(Chunk.class, Chunk.class, "next");
+
+    private final int capacity;
+    private final int chunkShift;
+    private final int chunkMask;
+
+    private volatile long producerIndex;
+    private volatile long consumerIndex;
+    private volatile Chunk producerChunk;
+    private volatile Chunk consumerChunk;
+
+    public MpscChunkedArrayQueue(int capacity) {
+        this(capacity, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param capacity  the maximum number of pending elements
+     * @param chunkSize the number of slots per chunk, rounded up to a power of two
+     */
+    public MpscChunkedArrayQueue(int capacity, int chunkSize) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be > 0");
+        }
+        if (chunkSize < 2 || chunkSize > 1 << 30) {
+            throw new IllegalArgumentException("chunkSize must be in range [2...2^30]");
+        }
+
+        chunkSize = roundToPowerOfTwo(Math.min(chunkSize, Math.max(capacity, 2)));
+        this.capacity = capacity;
+        this.chunkShift = Integer.numberOfTrailingZeros(chunkSize);
+        this.chunkMask = chunkSize - 1;
+
+        Chunk first = new Chunk(0, chunkSize);
+        producerChunk = first;
+        consumerChunk = first;
+    }
+
+    private static int roundToPowerOfTwo(int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    @Override
+    public boolean offer(E e) {
+        if (e == null) {
+            throw new NullPointerException();
+        }
+
+        long index;
+        for (; ; ) {
+            index = producerIndex;
+            if (index - consumerIndex >= capacity) {
+                return false;
+            }
+            if (PRODUCER_INDEX_UPDATER.compareAndSet(this, index, index + 1)) {
+                break;
+            }
+        }
+
+        Chunk chunk = producerChunkFor(index >>> chunkShift);
+        chunk.slots.lazySet((int) index & chunkMask, e);
+        return true;
+    }
+
+    private Chunk producerChunkFor(long chunkIndex) {
+        Chunk chunk = producerChunk;
+        if (chunk.index > chunkIndex) {
+            // another producer has already moved past our chunk, the consumer can not have left it yet
+            chunk = consumerChunk;
+        }
+
+        while (chunk.index < chunkIndex) {
+            Chunk next = chunk.next;
+            if (next == null) {
+                Chunk newChunk = new Chunk(chunk.index + 1, chunkMask + 1);
+                next = NEXT_UPDATER.compareAndSet(chunk, null, newChunk) ? newChunk : chunk.next;
+            }
+            chunk = next;
+        }
+
+        for (; ; ) {
+            Chunk hint = producerChunk;
+            if (hint.index >= chunk.index || PRODUCER_CHUNK_UPDATER.compareAndSet(this, hint, chunk)) {
+                return chunk;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public E poll() {
+        long index = consumerIndex;
+        if (index == producerIndex) {
+            return null;
+        }
+
+        Chunk chunk = consumerChunkFor(index);
+        int offset = (int) index & chunkMask;
+        Object e;
+        // the slot is claimed but the producer may not have published the element yet
+        while ((e = chunk.slots.get(offset)) == null) {
+            Thread.yield();
+        }
+        chunk.slots.lazySet(offset, null);
+        CONSUMER_INDEX_UPDATER.lazySet(this, index + 1);
+        return (E) e;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public E peek() {
+        long index = consumerIndex;
+        if (index == producerIndex) {
+            return null;
+        }
+
+        Chunk chunk = consumerChunkFor(index);
+        Object e;
+        while ((e = chunk.slots.get((int) index & chunkMask)) == null) {
+            Thread.yield();
+        }
+        return (E) e;
+    }
+
+    private Chunk consumerChunkFor(long index) {
+        Chunk chunk = consumerChunk;
+        long chunkIndex = index >>> chunkShift;
+        while (chunk.index < chunkIndex) {
+            Chunk next;
+            while ((next = chunk.next) == null) {
+                Thread.yield();
+            }
+            chunk = next;
+        }
+        consumerChunk = chunk;
+        return chunk;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return consumerIndex == producerIndex;
+    }
+
+    @Override
+    public int size() {
+        for (; ; ) {
+            long consumer = consumerIndex;
+            long producer = producerIndex;
+            if (consumer == consumerIndex) {
+                return (int) Math.min(Math.max(producer - consumer, 0), capacity);
+            }
+        }
+    }
+
+    /**
+     * @return weakly consistent iterator over elements pending when it is created, elements polled meanwhile are
+     * skipped. Removal is not supported, elements leave the queue through {@link #poll()} only.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Itr();
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getName() + "(size: " + size() + ", capacity: " + capacity + ')';
+    }
+
+    private final class Itr implements Iterator<E> {
+        private Chunk chunk;
+        private long index;
+        private final long end;
+        private E next;
+
+        Itr() {
+            // chunk first, the consumer index can only have moved past its start since
+            chunk = consumerChunk;
+            index = Math.max(consumerIndex, chunk.index << chunkShift);
+            end = producerIndex;
+            advance();
+        }
+
+        @SuppressWarnings("unchecked")
+        private void advance() {
+            next = null;
+            while (index < end) {
+                long chunkIndex = index >>> chunkShift;
+                while (chunk.index < chunkIndex) {
+                    Chunk nextChunk = chunk.next;
+                    if (nextChunk == null) {
+                        // claimed by a producer which has not linked the chunk yet
+                        index = end;
+                        return;
+                    }
+                    chunk = nextChunk;
+                }
+
+                // null if already polled or not published yet
+                Object e = chunk.slots.get((int) index++ & chunkMask);
+                if (e != null) {
+                    next = (E) e;
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public E next() {
+            E e = next;
+            if (e == null) {
+                throw new NoSuchElementException();
+            }
+            advance();
+            return e;
+        }
+    }
+
+    private static final class Chunk {
+        final long index;
+        final AtomicReferenceArray<Object> slots;
+        volatile Chunk next;
+
+        Chunk(long index, int size) {
+            this.index = index;
+            this.slots = new AtomicReferenceArray<>(size);
+        }
+    }
+}
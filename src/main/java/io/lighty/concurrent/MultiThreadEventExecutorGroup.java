@@ -1,5 +1,7 @@
 package io.lighty.concurrent;
 
+import io.lighty.concurrent.ExecutorChooserFactory.ExecutorChooser;
+
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedHashSet;
@@ -12,9 +14,11 @@ import java.util.stream.Collectors;
 
 public abstract class MultiThreadEventExecutorGroup extends AbstractEventExecutorGroup {
 
-    private final AtomicInteger childIndex = new AtomicInteger();
+    private static final AtomicInteger WATCHDOG_ID = new AtomicInteger();
+
     private final EventExecutor[] children;
-    private final ExecutorChooser chooser;
+    private volatile ExecutorChooser chooser;
+    private volatile StallWatchdog watchdog;
     private final Set<EventExecutor> readonlyChildren;
     private final FutureGroup<Void> shutdownFutureGroup;
 
@@ -32,15 +36,10 @@ public abstract class MultiThreadEventExecutorGroup extends AbstractEventExecuto
         }
 
         children = new EventExecutor[nThreads];
-        if (isPowerOfTwo(nThreads)) {
-            chooser = new PowerOfTwoExecutorChooser();
-        } else {
-            chooser = new GenericExecutorChooser();
-        }
-
         for (int i = 0; i < children.length; i++) {
             children[i] = newEventExecutor(executor, args);
         }
+        chooser = ExecutorChoosers.roundRobin().newChooser(children.clone());
 
         Set<EventExecutor> readonlyChildren = new LinkedHashSet<>(children.length);
         Collections.addAll(readonlyChildren, children);
@@ -50,10 +49,6 @@ public abstract class MultiThreadEventExecutorGroup extends AbstractEventExecuto
         shutdownFutureGroup = new DefaultFutureGroup<>(shutdownFutures);
     }
 
-    private static boolean isPowerOfTwo(int val) {
-        return (val & -val) == val;
-    }
-
     protected abstract EventExecutor newEventExecutor(Executor executor, Object... args);
 
     @Override
@@ -101,6 +96,57 @@ public abstract class MultiThreadEventExecutorGroup extends AbstractEventExecuto
         return shutdownFutureGroup;
     }
 
+    /**
+     * Starts a daemon thread which logs the stack of event executors stuck in a single run loop iteration or task
+     * for longer than {@code threshold}.
+     */
+    public synchronized void enableStallWatchdog(long threshold, TimeUnit unit) {
+        if (unit == null) {
+            throw new IllegalArgumentException("unit");
+        }
+        if (threshold <= 0) {
+            throw new IllegalArgumentException("threshold must be > 0");
+        }
+        if (watchdog != null) {
+            throw new IllegalStateException("stall watchdog already enabled");
+        }
+
+        SingleThreadEventExecutor[] executors = Arrays.stream(children)
+                .filter(SingleThreadEventExecutor.class::isInstance)
+                .toArray(SingleThreadEventExecutor[]::new);
+        watchdog = new StallWatchdog(this, executors, unit.toNanos(threshold));
+        Thread thread = new Thread(watchdog, "lighty-watchdog-" + WATCHDOG_ID.incrementAndGet());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public synchronized void disableStallWatchdog() {
+        if (watchdog != null) {
+            watchdog.stop();
+            watchdog = null;
+        }
+    }
+
+    /**
+     * @return number of stalls detected by the stall watchdog
+     */
+    public long getStallCount() {
+        StallWatchdog watchdog = this.watchdog;
+        return watchdog == null ? 0 : watchdog.stallCount();
+    }
+
+    /**
+     * Replaces the strategy used by {@link #next()}, round-robin by default.
+     *
+     * @see ExecutorChoosers
+     */
+    public void setChooserFactory(ExecutorChooserFactory chooserFactory) {
+        if (chooserFactory == null) {
+            throw new IllegalArgumentException("chooserFactory");
+        }
+        chooser = chooserFactory.newChooser(children.clone());
+    }
+
     @Override
     public EventExecutor next() {
         return chooser.next();
@@ -126,22 +172,4 @@ public abstract class MultiThreadEventExecutorGroup extends AbstractEventExecuto
     public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
         return false;
     }
-
-    private interface ExecutorChooser {
-        EventExecutor next();
-    }
-
-    private final class PowerOfTwoExecutorChooser implements ExecutorChooser {
-        @Override
-        public EventExecutor next() {
-            return children[childIndex.getAndIncrement() & children.length - 1];
-        }
-    }
-
-    private final class GenericExecutorChooser implements ExecutorChooser {
-        @Override
-        public EventExecutor next() {
-            return children[childIndex.getAndIncrement() % children.length];
-        }
-    }
 }
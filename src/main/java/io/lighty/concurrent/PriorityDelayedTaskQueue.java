@@ -0,0 +1,67 @@
+package io.lighty.concurrent;
+
+import java.util.Iterator;
+import java.util.PriorityQueue;
+import java.util.Queue;
+
+final class PriorityDelayedTaskQueue extends DelayedTaskQueue {
+
+    private final Queue<ScheduledTask<?>> queue = new PriorityQueue<>();
+
+    @Override
+    void add(ScheduledTask<?> task) {
+        queue.add(task);
+    }
+
+    @Override
+    boolean removeOnCancel() {
+        return false;
+    }
+
+    @Override
+    void remove(ScheduledTask<?> task) {
+        queue.remove(task);
+    }
+
+    @Override
+    ScheduledTask<?> poll(long nanoTime) {
+        ScheduledTask<?> task = queue.peek();
+        if (task == null || task.triggerTime() > nanoTime) {
+            return null;
+        }
+        return queue.remove();
+    }
+
+    @Override
+    long delayNanos(long nanoTime) {
+        ScheduledTask<?> task = queue.peek();
+        if (task == null) {
+            return -1;
+        }
+        return Math.max(0, task.triggerTime() - nanoTime);
+    }
+
+    @Override
+    void purge() {
+        Iterator<ScheduledTask<?>> i = queue.iterator();
+        while (i.hasNext()) {
+            ScheduledTask<?> task = i.next();
+            if (task.isCancelled()) {
+                i.remove();
+            }
+        }
+    }
+
+    @Override
+    void cancelAll() {
+        for (ScheduledTask<?> task : queue) {
+            task.cancel();
+        }
+        queue.clear();
+    }
+
+    @Override
+    int size() {
+        return queue.size();
+    }
+}
@@ -0,0 +1,9 @@
+package io.lighty.concurrent;
+
+/**
+ * Called by {@link SingleThreadEventExecutor} when a task can not be added to its bounded task queue.
+ */
+public interface RejectedTaskHandler {
+
+    void rejected(Runnable task, SingleThreadEventExecutor executor);
+}
@@ -0,0 +1,59 @@
+package io.lighty.concurrent;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+public final class RejectedTaskHandlers {
+
+    private static final RejectedTaskHandler REJECT = (task, executor) -> {
+        throw new RejectedExecutionException("task queue of " + executor + " is full");
+    };
+
+    private static final RejectedTaskHandler CALLER_RUNS = (task, executor) -> task.run();
+
+    private RejectedTaskHandlers() {
+    }
+
+    /**
+     * @return handler which throws {@link RejectedExecutionException}
+     */
+    public static RejectedTaskHandler reject() {
+        return REJECT;
+    }
+
+    /**
+     * @return handler which runs rejected task in the submitting thread
+     */
+    public static RejectedTaskHandler callerRuns() {
+        return CALLER_RUNS;
+    }
+
+    /**
+     * @return handler which retries to add the task {@code retries} times, parking the submitting thread for
+     * {@code backoff} between attempts, and throws {@link RejectedExecutionException} if the queue is still full.
+     * Tasks submitted from the executor thread itself are rejected immediately.
+     */
+    public static RejectedTaskHandler backoff(int retries, long backoff, TimeUnit unit) {
+        if (retries < 1) {
+            throw new IllegalArgumentException("retries must be > 0");
+        }
+        if (unit == null) {
+            throw new IllegalArgumentException("unit");
+        }
+
+        long backoffNanos = unit.toNanos(backoff);
+        return (task, executor) -> {
+            if (!executor.inExecutorThread()) {
+                for (int i = 0; i < retries; i++) {
+                    executor.wakeup(false);
+                    LockSupport.parkNanos(backoffNanos);
+                    if (executor.offerTask(task)) {
+                        return;
+                    }
+                }
+            }
+            REJECT.rejected(task, executor);
+        };
+    }
+}
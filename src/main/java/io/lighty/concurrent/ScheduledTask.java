@@ -1,8 +1,8 @@
 package io.lighty.concurrent;
 
-import java.util.Queue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.Delayed;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -21,13 +21,19 @@ class ScheduledTask<V> extends PromiseTask<V> implements ScheduledFuture<V> {
      */
     long period;
     long triggerTime;
-    Queue<ScheduledTask<?>> delayedTaskQueue;
+    DelayedTaskQueue delayedTaskQueue;
 
-    ScheduledTask(EventExecutor eventExecutor, Callable<V> task, long delay, Queue<ScheduledTask<?>> delayedTaskQueue) {
+    // links of the hashed wheel bucket holding this task
+    HashedWheelDelayedTaskQueue.Bucket bucket;
+    ScheduledTask<?> prev;
+    ScheduledTask<?> next;
+    long rounds;
+
+    ScheduledTask(EventExecutor eventExecutor, Callable<V> task, long delay, DelayedTaskQueue delayedTaskQueue) {
         this(eventExecutor, task, delay, 0, delayedTaskQueue);
     }
 
-    ScheduledTask(EventExecutor eventExecutor, Callable<V> task, long delay, long period, Queue<ScheduledTask<?>> delayedTaskQueue) {
+    ScheduledTask(EventExecutor eventExecutor, Callable<V> task, long delay, long period, DelayedTaskQueue delayedTaskQueue) {
         super(eventExecutor, task);
         this.triggerTime = delay;
         this.period = period;
@@ -38,6 +44,10 @@ class ScheduledTask<V> extends PromiseTask<V> implements ScheduledFuture<V> {
         return System.nanoTime() - ORIGIN;
     }
 
+    static long nanos(long nanoTime) {
+        return nanoTime - ORIGIN;
+    }
+
     public static long triggerTime(long delayNanos) {
         return nanos() + delayNanos;
     }
@@ -98,6 +108,22 @@ class ScheduledTask<V> extends PromiseTask<V> implements ScheduledFuture<V> {
         }
     }
 
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        boolean cancelled = super.cancel(mayInterruptIfRunning);
+        if (cancelled && delayedTaskQueue.removeOnCancel()) {
+            if (executor().inExecutorThread()) {
+                delayedTaskQueue.remove(this);
+            } else {
+                try {
+                    executor().execute(() -> delayedTaskQueue.remove(this));
+                } catch (RejectedExecutionException ignore) {
+                }
+            }
+        }
+        return cancelled;
+    }
+
     @Override
     public int compareTo(Delayed o) {
         if (o == null) {
@@ -10,11 +10,14 @@ import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 
 public abstract class SingleThreadEventExecutor extends AbstractEventExecutor {
 
     private static final Logger logger = LoggerFactory.getLogger(SingleThreadEventExecutor.class);
     private static final AtomicIntegerFieldUpdater<SingleThreadEventExecutor> STATE_UPDATER = AtomicIntegerFieldUpdater.newUpdater(SingleThreadEventExecutor.class, "state");
+    private static final AtomicLongFieldUpdater<SingleThreadEventExecutor> ITERATION_START_UPDATER = AtomicLongFieldUpdater.newUpdater(SingleThreadEventExecutor.class, "iterationStartNanos");
+    private static final AtomicLongFieldUpdater<SingleThreadEventExecutor> TASK_START_UPDATER = AtomicLongFieldUpdater.newUpdater(SingleThreadEventExecutor.class, "taskStartNanos");
 
     private static final int ST_NOT_STARTED = 1;
     private static final int ST_STARTED = 2;
@@ -22,17 +25,33 @@ public abstract class SingleThreadEventExecutor extends AbstractEventExecutor {
     private static final int ST_SHUTDOWN = 4;
     private static final int ST_TERMINATED = 5;
 
+    protected static final int DEFAULT_MAX_PENDING_TASKS = Math.max(16, Integer.getInteger("io.lighty.eventExecutor.maxPendingTasks", Integer.MAX_VALUE));
+
+    static final long IDLE = -1;
+
+    private static final ThreadLocal<SingleThreadEventExecutor> CURRENT_EXECUTOR = new ThreadLocal<>();
+
     private static final Runnable WAKEUP_TASK = () -> {
         // NO OP
     };
 
     private volatile int state = ST_NOT_STARTED;
+    /**
+     * Heartbeat for {@link StallWatchdog}, {@link ScheduledTask#nanos()} or {@link #IDLE} while waiting for work
+     */
+    private volatile long iterationStartNanos = IDLE;
+    private volatile long taskStartNanos = IDLE;
+    volatile boolean monitored;
 
     private final Promise<Void> terminationFuture = new DefaultPromise<>(GlobalEventExecutor.INSTANCE);
     private final boolean wakeUpForTask;
     private final Executor executor;
+    private final RejectedTaskHandler rejectedTaskHandler;
 
-    private Thread thread;
+    /**
+     * Volatile as {@link StallWatchdog} reads it from its own thread
+     */
+    private volatile Thread thread;
     private Queue<Runnable> taskQueue;
     private int executedTasks = 0;
     private boolean shutdownConfirmed;
@@ -46,10 +65,32 @@ public abstract class SingleThreadEventExecutor extends AbstractEventExecutor {
     }
 
     protected SingleThreadEventExecutor(EventExecutorGroup parent, boolean wakeUpForTask, Executor executor) {
-        super(parent);
+        this(parent, wakeUpForTask, executor, DEFAULT_MAX_PENDING_TASKS, RejectedTaskHandlers.reject());
+    }
+
+    protected SingleThreadEventExecutor(EventExecutorGroup parent, boolean wakeUpForTask, Executor executor, int maxPendingTasks,
+                                        RejectedTaskHandler rejectedTaskHandler) {
+        this(parent, wakeUpForTask, executor, maxPendingTasks, rejectedTaskHandler, DelayedTaskQueue.newPriorityQueue());
+    }
+
+    /**
+     * @param maxPendingTasks     the maximum number of tasks which may wait in the task queue
+     * @param rejectedTaskHandler the handler to call when the task queue is full
+     * @param delayedTaskQueue    the store of scheduled tasks
+     */
+    protected SingleThreadEventExecutor(EventExecutorGroup parent, boolean wakeUpForTask, Executor executor, int maxPendingTasks,
+                                        RejectedTaskHandler rejectedTaskHandler, DelayedTaskQueue delayedTaskQueue) {
+        super(parent, delayedTaskQueue);
+        if (maxPendingTasks < 1) {
+            throw new IllegalArgumentException("maxPendingTasks must be > 0");
+        }
+        if (rejectedTaskHandler == null) {
+            throw new IllegalArgumentException("rejectedTaskHandler");
+        }
         this.executor = executor;
         this.wakeUpForTask = wakeUpForTask;
-        taskQueue = newTaskQueue();
+        this.rejectedTaskHandler = rejectedTaskHandler;
+        taskQueue = newTaskQueue(maxPendingTasks);
     }
 
     @Override
@@ -67,7 +108,7 @@ public abstract class SingleThreadEventExecutor extends AbstractEventExecutor {
         return STATE_UPDATER.get(this) == ST_TERMINATED;
     }
 
-    protected abstract Queue<Runnable> newTaskQueue();
+    protected abstract Queue<Runnable> newTaskQueue(int maxPendingTasks);
 
     protected Runnable takeTask() {
         if (!(this.taskQueue instanceof BlockingQueue)) {
@@ -76,9 +117,9 @@ public abstract class SingleThreadEventExecutor extends AbstractEventExecutor {
 
         BlockingQueue<Runnable> taskQueue = (BlockingQueue<Runnable>) this.taskQueue;
         for (; ; ) {
-            ScheduledTask<?> delayedTask = peekDelayedTask();
+            long delayNanos = delayedTaskDelayNanos();
 
-            if (delayedTask == null) {
+            if (delayNanos < 0) {
                 Runnable task = null;
                 try {
                     task = taskQueue.take();
@@ -86,7 +127,6 @@ public abstract class SingleThreadEventExecutor extends AbstractEventExecutor {
                 }
                 return task;
             } else {
-                long delayNanos = delayedTask.getDelayNanos();
                 Runnable task = null;
                 if (delayNanos > 0) {
                     try {
@@ -115,7 +155,11 @@ public abstract class SingleThreadEventExecutor extends AbstractEventExecutor {
             if (delayedTask == null) {
                 break;
             }
-            taskQueue.add(delayedTask);
+            if (!taskQueue.offer(delayedTask)) {
+                // no room left, try again on the next fetch
+                addDelayedTask(delayedTask);
+                break;
+            }
         }
     }
 
@@ -133,6 +177,13 @@ public abstract class SingleThreadEventExecutor extends AbstractEventExecutor {
         return !taskQueue.isEmpty();
     }
 
+    /**
+     * @return number of tasks waiting in the task queue, excluding delayed tasks which are not due yet
+     */
+    public int queuedTasks() {
+        return taskQueue.size();
+    }
+
     protected void addTask(Runnable task) {
         if (task == null) {
             throw new IllegalArgumentException("task");
@@ -142,7 +193,13 @@ public abstract class SingleThreadEventExecutor extends AbstractEventExecutor {
             reject();
         }
 
-        taskQueue.add(task);
+        if (!offerTask(task)) {
+            rejectedTaskHandler.rejected(task, this);
+        }
+    }
+
+    final boolean offerTask(Runnable task) {
+        return taskQueue.offer(task);
     }
 
     protected static void reject() {
@@ -167,7 +224,7 @@ public abstract class SingleThreadEventExecutor extends AbstractEventExecutor {
 
     protected void wakeup(boolean inExecutorThread) {
         if (!inExecutorThread) {
-            taskQueue.add(WAKEUP_TASK);
+            taskQueue.offer(WAKEUP_TASK);
         }
     }
 
@@ -188,6 +245,7 @@ public abstract class SingleThreadEventExecutor extends AbstractEventExecutor {
 
         executor.execute(() -> {
             SingleThreadEventExecutor.this.thread = Thread.currentThread();
+            CURRENT_EXECUTOR.set(SingleThreadEventExecutor.this);
 
             boolean success = false;
             try {
@@ -227,6 +285,39 @@ public abstract class SingleThreadEventExecutor extends AbstractEventExecutor {
 
     protected abstract void run();
 
+    /**
+     * Marks the start of a run loop iteration, after the executor was woken up with work to do.
+     */
+    protected final void iterationStarted() {
+        ITERATION_START_UPDATER.lazySet(this, ScheduledTask.nanos());
+    }
+
+    /**
+     * Marks the end of a run loop iteration, before the executor waits for work again.
+     */
+    protected final void iterationFinished() {
+        ITERATION_START_UPDATER.lazySet(this, IDLE);
+    }
+
+    long iterationStartNanos() {
+        return iterationStartNanos;
+    }
+
+    long taskStartNanos() {
+        return taskStartNanos;
+    }
+
+    Thread thread() {
+        return thread;
+    }
+
+    /**
+     * @return executor running in the current thread or {@code null} if it is not an executor thread
+     */
+    public static SingleThreadEventExecutor currentExecutor() {
+        return CURRENT_EXECUTOR.get();
+    }
+
     protected void cleanup() {
         // NO OP
     }
@@ -267,17 +358,13 @@ public abstract class SingleThreadEventExecutor extends AbstractEventExecutor {
 
         long deadlineNanos = ScheduledTask.triggerTime(timeoutNanos);
         for (; ; ) {
-            try {
-                task.run();
-            } catch (Throwable t) {
-                logger.warn("task raised an exception: ", t);
-            }
+            runTask(task);
 
             executedTasks++;
             // check every 32 tasks
             if ((executedTasks & 0x20) != 0) {
                 executedTasks = 0;
-                if (deadlineNanos >= System.nanoTime()) {
+                if (ScheduledTask.nanos() >= deadlineNanos) {
                     return true;
                 }
             }
@@ -290,6 +377,20 @@ public abstract class SingleThreadEventExecutor extends AbstractEventExecutor {
         }
     }
 
+    private void runTask(Runnable task) {
+        if (monitored) {
+            TASK_START_UPDATER.lazySet(this, ScheduledTask.nanos());
+        }
+        try {
+            task.run();
+        } catch (Throwable e) {
+            logger.warn("task raised an exception: ", e);
+        }
+        if (monitored) {
+            TASK_START_UPDATER.lazySet(this, IDLE);
+        }
+    }
+
     protected boolean runAllTasks() {
         assert inExecutorThread();
 
@@ -300,11 +401,7 @@ public abstract class SingleThreadEventExecutor extends AbstractEventExecutor {
         }
 
         for (; ; ) {
-            try {
-                task.run();
-            } catch (Throwable e) {
-                logger.warn("task raised an exception: ", e);
-            }
+            runTask(task);
 
             task = pollTask();
 
@@ -315,12 +412,12 @@ public abstract class SingleThreadEventExecutor extends AbstractEventExecutor {
     }
 
     protected long closestDeadlineNanos(long timeNanos) {
-        ScheduledTask<?> delayedTask = peekDelayedTask();
-        if (delayedTask == null) {
+        long delayNanos = delayedTaskDelayNanos(timeNanos);
+        if (delayNanos < 0) {
             return PURGE_TASK_INTERVAL;
         }
 
-        return delayedTask.getDelayNanos(timeNanos);
+        return delayNanos;
     }
 
     @Deprecated
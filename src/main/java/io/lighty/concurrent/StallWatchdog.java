@@ -0,0 +1,119 @@
+package io.lighty.concurrent;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Checks the heartbeat of the executors of a group and reports those which are stuck in a single run loop iteration
+ * or task for longer than the threshold, with the stack of the executor thread. Each stall is counted once,
+ * at most one stall per {@link #LOG_INTERVAL_NANOS} is logged.
+ */
+final class StallWatchdog implements Runnable {
+
+    private static final Logger logger = LoggerFactory.getLogger(StallWatchdog.class);
+
+    private static final long LOG_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(Long.getLong("io.lighty.watchdog.logIntervalMillis", 10000));
+    private static final long MIN_CHECK_INTERVAL_MILLIS = 10;
+
+    private final EventExecutorGroup group;
+    private final SingleThreadEventExecutor[] executors;
+    private final long thresholdNanos;
+    private final long checkIntervalMillis;
+    /**
+     * Start of the last reported stall of each executor
+     */
+    private final long[] reportedStalls;
+    private final AtomicLong stallCount = new AtomicLong();
+
+    private long lastLogNanos = -LOG_INTERVAL_NANOS;
+    private int suppressedStalls;
+    private volatile boolean stopped;
+
+    StallWatchdog(EventExecutorGroup group, SingleThreadEventExecutor[] executors, long thresholdNanos) {
+        this.group = group;
+        this.executors = executors;
+        this.thresholdNanos = thresholdNanos;
+        this.checkIntervalMillis = Math.max(MIN_CHECK_INTERVAL_MILLIS, TimeUnit.NANOSECONDS.toMillis(thresholdNanos) / 2);
+        this.reportedStalls = new long[executors.length];
+        Arrays.fill(reportedStalls, SingleThreadEventExecutor.IDLE);
+        for (SingleThreadEventExecutor executor : executors) {
+            executor.monitored = true;
+        }
+    }
+
+    long stallCount() {
+        return stallCount.get();
+    }
+
+    void stop() {
+        stopped = true;
+        for (SingleThreadEventExecutor executor : executors) {
+            executor.monitored = false;
+        }
+    }
+
+    @Override
+    public void run() {
+        while (!stopped && !group.isShuttingDown()) {
+            try {
+                Thread.sleep(checkIntervalMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+            check(ScheduledTask.nanos());
+        }
+    }
+
+    private void check(long now) {
+        for (int i = 0; i < executors.length; i++) {
+            SingleThreadEventExecutor executor = executors[i];
+            long iterationStart = executor.iterationStartNanos();
+            long taskStart = executor.taskStartNanos();
+
+            String stalledIn;
+            long stallStart;
+            if (taskStart != SingleThreadEventExecutor.IDLE && now - taskStart > thresholdNanos) {
+                stalledIn = "task";
+                stallStart = taskStart;
+            } else if (iterationStart != SingleThreadEventExecutor.IDLE && now - iterationStart > thresholdNanos) {
+                stalledIn = "iteration";
+                stallStart = iterationStart;
+            } else {
+                continue;
+            }
+
+            // a slow task keeps its iteration stalled too, key the stall by the iteration to report it once
+            long stall = iterationStart != SingleThreadEventExecutor.IDLE ? iterationStart : stallStart;
+            if (reportedStalls[i] == stall) {
+                continue;
+            }
+            reportedStalls[i] = stall;
+            stallCount.incrementAndGet();
+            report(executor, stalledIn, now - stallStart, now);
+        }
+    }
+
+    private void report(SingleThreadEventExecutor executor, String stalledIn, long stalledNanos, long now) {
+        if (now - lastLogNanos < LOG_INTERVAL_NANOS) {
+            suppressedStalls++;
+            return;
+        }
+        lastLogNanos = now;
+
+        Thread thread = executor.thread();
+        StringBuilder stack = new StringBuilder();
+        if (thread != null) {
+            for (StackTraceElement element : thread.getStackTrace()) {
+                stack.append("\n\tat ").append(element);
+            }
+        }
+
+        logger.warn("{} stalled in a {} for {} ms, {} more stalls since the last report, thread {}:{}", executor, stalledIn,
+                TimeUnit.NANOSECONDS.toMillis(stalledNanos), suppressedStalls, thread == null ? null : thread.getName(), stack);
+        suppressedStalls = 0;
+    }
+}
@@ -33,6 +33,10 @@ public abstract class AbstractNioChannel extends AbstractChannel {
         super(parent, ch);
     }
 
+    void setSelectionKey(SelectionKey selectionKey) {
+        this.selectionKey = selectionKey;
+    }
+
     @Override
     public NioEventLoop eventLoop() {
         return (NioEventLoop) super.eventLoop();
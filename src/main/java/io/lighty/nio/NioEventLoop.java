@@ -3,10 +3,17 @@ package io.lighty.nio;
 import io.lighty.EventLoop;
 import io.lighty.EventLoopGroup;
 import io.lighty.SingleThreadEventLoop;
+import io.lighty.concurrent.DelayedTaskQueue;
+import io.lighty.concurrent.RejectedTaskHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
 import java.nio.channels.CancelledKeyException;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
@@ -24,9 +31,37 @@ public final class NioEventLoop extends SingleThreadEventLoop implements EventLo
 
     private static final Logger logger = LoggerFactory.getLogger(NioEventLoop.class);
 
+    /**
+     * Enables replacing of the selector's selected-key set with {@link SelectedSelectionKeySet}.
+     * Falls back to the JDK set when the selector implementation refuses the swap.
+     */
+    private static final boolean OPTIMIZE_SELECTED_KEYS = Boolean.getBoolean("io.lighty.nio.optimizeSelectedKeys");
+    private static final int DEFAULT_SELECTOR_REBUILD_THRESHOLD = 512;
+    private static final int IO_RATIO_DECREMENT = 5;
+    private static final int IO_RATIO_INCREMENT = 1;
+    private static final MethodHandle ON_SPIN_WAIT = findOnSpinWait();
+    /**
+     * Most buffers a gathering write passes to the kernel at once
+     */
+    static final int IOV_MAX = 1024;
+
     private final AtomicBoolean awakened = new AtomicBoolean(true);
-    Selector selector;
+    volatile Selector selector;
+    /**
+     * Scratch array for gathering writes of channels of this loop
+     */
+    final ByteBuffer[] nioBuffers = new ByteBuffer[IOV_MAX];
+    private SelectedSelectionKeySet selectedKeys;
     private int ioRatio = 50;
+    private boolean adaptiveIoRatio;
+    private int minIoRatio;
+    private int maxIoRatio;
+    private long targetTaskLatencyNanos;
+    private long backlogSince;
+    private long busyPollNanos;
+    private boolean spinWaitHint;
+    private int selectorRebuildThreshold = DEFAULT_SELECTOR_REBUILD_THRESHOLD;
+    private volatile long selectorRebuildCount;
     private SelectorProvider selectorProvider;
 
     public NioEventLoop() {
@@ -64,17 +99,43 @@ public final class NioEventLoop extends SingleThreadEventLoop implements EventLo
         openSelector();
     }
 
+    public NioEventLoop(EventLoopGroup parent, SelectorProvider selectorProvider, Executor executor, int maxPendingTasks,
+                        RejectedTaskHandler rejectedTaskHandler) {
+        this(parent, selectorProvider, executor, maxPendingTasks, rejectedTaskHandler, DelayedTaskQueue.newPriorityQueue());
+    }
+
+    public NioEventLoop(EventLoopGroup parent, SelectorProvider selectorProvider, Executor executor, int maxPendingTasks,
+                        RejectedTaskHandler rejectedTaskHandler, DelayedTaskQueue delayedTaskQueue) {
+        super(parent, true, executor, maxPendingTasks, rejectedTaskHandler, delayedTaskQueue);
+        if (selectorProvider == null) {
+            throw new IllegalArgumentException("selectorProvider");
+        }
+        this.selectorProvider = selectorProvider;
+        openSelector();
+    }
+
+    private static MethodHandle findOnSpinWait() {
+        try {
+            return MethodHandles.publicLookup().findStatic(Thread.class, "onSpinWait", MethodType.methodType(void.class));
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private static void onSpinWait() {
+        if (ON_SPIN_WAIT != null) {
+            try {
+                ON_SPIN_WAIT.invokeExact();
+            } catch (Throwable ignore) {
+            }
+        }
+    }
+
     private static void processSelectedKeys(Iterator<SelectionKey> keys) {
         while (keys != null && keys.hasNext()) {
             SelectionKey key = keys.next();
             keys.remove();
-            AbstractNioChannel channel = (AbstractNioChannel) key.attachment();
-
-            if (key.isValid()) {
-                processSelectedKey(channel, key);
-            } else {
-                channel.unsafe().close(channel.voidPromise());
-            }
+            processSelectedKey(key);
         }
     }
 
@@ -99,27 +160,158 @@ public final class NioEventLoop extends SingleThreadEventLoop implements EventLo
         }
     }
 
+    private static void processSelectedKey(SelectionKey key) {
+        AbstractNioChannel channel = (AbstractNioChannel) key.attachment();
+
+        if (key.isValid()) {
+            processSelectedKey(channel, key);
+        } else {
+            channel.unsafe().close(channel.voidPromise());
+        }
+    }
+
+    private static SelectedSelectionKeySet optimizeSelectedKeys(Selector selector) {
+        try {
+            Class<?> selectorImplClass = Class.forName("sun.nio.ch.SelectorImpl", false, ClassLoader.getSystemClassLoader());
+            if (!selectorImplClass.isAssignableFrom(selector.getClass())) {
+                return null;
+            }
+
+            Field selectedKeysField = selectorImplClass.getDeclaredField("selectedKeys");
+            Field publicSelectedKeysField = selectorImplClass.getDeclaredField("publicSelectedKeys");
+            selectedKeysField.setAccessible(true);
+            publicSelectedKeysField.setAccessible(true);
+
+            SelectedSelectionKeySet selectedKeys = new SelectedSelectionKeySet();
+            selectedKeysField.set(selector, selectedKeys);
+            publicSelectedKeysField.set(selector, selectedKeys);
+            return selectedKeys;
+        } catch (Throwable e) {
+            logger.debug("Failed to optimize selected keys of " + selector + ", falling back to default key set", e);
+            return null;
+        }
+    }
+
     private void processSelectedKeys() {
-        processSelectedKeys(selector.selectedKeys().iterator());
+        if (selectedKeys != null) {
+            processSelectedKeysOptimized();
+        } else {
+            processSelectedKeys(selector.selectedKeys().iterator());
+        }
+    }
+
+    private void processSelectedKeysOptimized() {
+        SelectionKey[] keys = selectedKeys.keys;
+        for (int i = 0; i < selectedKeys.size; i++) {
+            processSelectedKey(keys[i]);
+        }
+        selectedKeys.reset();
+    }
+
+    public boolean isSelectedKeysOptimized() {
+        return selectedKeys != null;
     }
 
     public int getIoRatio() {
         return ioRatio;
     }
 
+    /**
+     * Sets static ioRatio and disables adaptive mode.
+     */
     public void setIoRatio(int ioRatio) {
         if (ioRatio < 1 || ioRatio > 100) {
             throw new IllegalArgumentException("ioRatio must be in range [1...100]");
         }
+        this.adaptiveIoRatio = false;
         this.ioRatio = ioRatio;
     }
 
+    public boolean isAdaptiveIoRatio() {
+        return adaptiveIoRatio;
+    }
+
+    /**
+     * Enables adaptive mode: after each iteration ioRatio is lowered while pending tasks wait longer than
+     * {@code targetTaskLatency} and slowly raised back while the task queue is drained well within it.
+     *
+     * @param minIoRatio        the inclusive lower bound of ioRatio
+     * @param maxIoRatio        the inclusive upper bound of ioRatio
+     * @param targetTaskLatency the latency which pending tasks should not exceed
+     * @param unit              the time unit of {@code targetTaskLatency}
+     */
+    public void setAdaptiveIoRatio(int minIoRatio, int maxIoRatio, long targetTaskLatency, TimeUnit unit) {
+        if (minIoRatio < 1 || maxIoRatio > 100 || minIoRatio > maxIoRatio) {
+            throw new IllegalArgumentException("ioRatio bounds must be in range [1...100] and minIoRatio <= maxIoRatio");
+        }
+        if (targetTaskLatency <= 0) {
+            throw new IllegalArgumentException("targetTaskLatency must be > 0");
+        }
+        if (unit == null) {
+            throw new IllegalArgumentException("unit");
+        }
+
+        this.minIoRatio = minIoRatio;
+        this.maxIoRatio = maxIoRatio;
+        this.targetTaskLatencyNanos = unit.toNanos(targetTaskLatency);
+        this.ioRatio = Math.min(Math.max(ioRatio, minIoRatio), maxIoRatio);
+        this.backlogSince = 0;
+        this.adaptiveIoRatio = true;
+    }
+
+    public long getBusyPollNanos() {
+        return busyPollNanos;
+    }
+
+    /**
+     * Enables busy-poll mode: when there is nothing to do the loop spins on {@link Selector#selectNow()}
+     * and the task queue for up to {@code spinTime} before it falls back to a blocking select.
+     * While the loop spins, producers do not need to wake up the selector. {@code 0} disables the mode.
+     *
+     * @param spinTime     the maximum time to spin before blocking
+     * @param unit         the time unit of {@code spinTime}
+     * @param spinWaitHint whether to call {@code Thread.onSpinWait()} between polls when the runtime supports it
+     */
+    public void setBusyPoll(long spinTime, TimeUnit unit, boolean spinWaitHint) {
+        if (spinTime < 0) {
+            throw new IllegalArgumentException("spinTime must be >= 0");
+        }
+        if (unit == null) {
+            throw new IllegalArgumentException("unit");
+        }
+        this.busyPollNanos = unit.toNanos(spinTime);
+        this.spinWaitHint = spinWaitHint;
+    }
+
+    public int getSelectorRebuildThreshold() {
+        return selectorRebuildThreshold;
+    }
+
+    /**
+     * Sets number of consecutive premature {@link Selector#select(long)} returns after which
+     * the selector is considered broken and is rebuilt. {@code 0} disables the rebuild.
+     */
+    public void setSelectorRebuildThreshold(int selectorRebuildThreshold) {
+        if (selectorRebuildThreshold < 0) {
+            throw new IllegalArgumentException("selectorRebuildThreshold must be >= 0");
+        }
+        this.selectorRebuildThreshold = selectorRebuildThreshold;
+    }
+
+    public long getSelectorRebuildCount() {
+        return selectorRebuildCount;
+    }
+
     private void openSelector() {
         try {
             this.selector = selectorProvider.openSelector();
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
+
+        if (OPTIMIZE_SELECTED_KEYS) {
+            selectedKeys = optimizeSelectedKeys(selector);
+        }
     }
 
     @Override
@@ -144,20 +336,30 @@ public final class NioEventLoop extends SingleThreadEventLoop implements EventLo
             try {
                 if (hasTasks()) {
                     selectNow();
-                } else {
+                } else if (busyPollNanos == 0 || !busyPoll()) {
                     select();
                 }
                 awakened.set(true);
+                iterationStarted();
 
-                if (ioRatio == 100) {
+                if (ioRatio == 100 && !adaptiveIoRatio) {
                     processSelectedKeys();
                     runAllTasks();
                 } else {
                     long s = System.nanoTime();
                     processSelectedKeys();
                     long ioTime = System.nanoTime() - s;
-                    runAllTasks(ioTime * (100 - ioRatio) / ioRatio);
+                    if (ioRatio == 100) {
+                        runAllTasks();
+                    } else {
+                        runAllTasks(ioTime * (100 - ioRatio) / ioRatio);
+                    }
+
+                    if (adaptiveIoRatio) {
+                        adjustIoRatio(s, System.nanoTime());
+                    }
                 }
+                iterationFinished();
 
                 if (isShuttingDown()) {
                     closeAll();
@@ -171,15 +373,58 @@ public final class NioEventLoop extends SingleThreadEventLoop implements EventLo
         }
     }
 
+    private void adjustIoRatio(long iterationStart, long now) {
+        long taskLatency;
+        if (hasTasks()) {
+            // tasks left behind wait at least since the iteration which first failed to drain the queue
+            if (backlogSince == 0) {
+                backlogSince = iterationStart;
+            }
+            taskLatency = now - backlogSince;
+        } else {
+            backlogSince = 0;
+            taskLatency = now - iterationStart;
+        }
+
+        if (taskLatency > targetTaskLatencyNanos) {
+            ioRatio = Math.max(minIoRatio, ioRatio - IO_RATIO_DECREMENT);
+        } else if (backlogSince == 0 && taskLatency < targetTaskLatencyNanos >> 1) {
+            ioRatio = Math.min(maxIoRatio, ioRatio + IO_RATIO_INCREMENT);
+        }
+    }
+
+    /**
+     * @return {@code true} if keys were selected or tasks arrived while spinning
+     */
+    private boolean busyPoll() throws IOException {
+        long nanos = System.nanoTime();
+        long spinNanos = Math.min(busyPollNanos, closestDeadlineNanos(nanos));
+        long deadline = nanos + spinNanos;
+
+        for (; ; ) {
+            if (selector.selectNow() > 0 || hasTasks()) {
+                return true;
+            }
+            if (isShuttingDown() || System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+            if (spinWaitHint) {
+                onSpinWait();
+            }
+        }
+    }
+
     private void selectNow() throws IOException {
         selector.selectNow();
     }
 
     private void select() throws IOException {
+        int prematureSelects = 0;
         for (; ; ) {
             long nanos = System.nanoTime();
             long deadline = closestDeadlineNanos(nanos);
-            long timeout = deadline >= 0 ? TimeUnit.NANOSECONDS.toMillis(deadline) : deadline;
+            // round up, otherwise a sub-millisecond deadline turns into selectNow() spinning until it expires
+            long timeout = deadline >= 0 ? TimeUnit.NANOSECONDS.toMillis(deadline + 999_999) : deadline;
 
             if (timeout <= 0) {
                 selectNow();
@@ -187,6 +432,11 @@ public final class NioEventLoop extends SingleThreadEventLoop implements EventLo
             }
 
             awakened.set(false);
+            // a task submitted while awakened was still set did not wake up the selector
+            if (hasTasks()) {
+                selectNow();
+                break;
+            }
             int keyCount = selector.select(timeout);
 
             if (keyCount > 0 || awakened.get() || hasTasks()) {
@@ -197,7 +447,58 @@ public final class NioEventLoop extends SingleThreadEventLoop implements EventLo
                 logger.warn("Thread.currentThread().interrupt() was called. Use NioEventLoop.shutdownGracefully() to shutdown NioEventLoop.");
                 break;
             }
+
+            if (System.nanoTime() - nanos >= TimeUnit.MILLISECONDS.toNanos(timeout)) {
+                prematureSelects = 0;
+            } else if (selectorRebuildThreshold > 0 && ++prematureSelects >= selectorRebuildThreshold) {
+                logger.warn("Selector.select() returned prematurely {} times in a row, rebuilding selector {}", prematureSelects, selector);
+                rebuildSelector();
+                selectNow();
+                break;
+            }
+        }
+    }
+
+    private void rebuildSelector() {
+        Selector oldSelector = selector;
+        SelectedSelectionKeySet oldSelectedKeys = selectedKeys;
+        try {
+            openSelector();
+        } catch (RuntimeException e) {
+            logger.warn("Failed to create a new selector", e);
+            return;
+        }
+
+        int migrated = 0;
+        for (SelectionKey key : oldSelector.keys()) {
+            AbstractNioChannel channel = (AbstractNioChannel) key.attachment();
+            if (channel == null || !key.isValid() || key.channel().keyFor(selector) != null) {
+                continue;
+            }
+
+            try {
+                int interestOps = key.interestOps();
+                key.cancel();
+                channel.setSelectionKey(key.channel().register(selector, interestOps, channel));
+                migrated++;
+            } catch (Exception e) {
+                logger.warn("Failed to re-register channel " + channel + " to the new selector", e);
+                channel.unsafe().close(channel.voidPromise());
+            }
         }
+
+        if (oldSelectedKeys != null) {
+            oldSelectedKeys.reset();
+        }
+
+        try {
+            oldSelector.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close the old selector", e);
+        }
+
+        selectorRebuildCount++;
+        logger.info("Migrated {} channel(s) to the new selector", migrated);
     }
 
     private void closeAll() {
@@ -1,13 +1,17 @@
 package io.lighty.nio;
 
 import io.lighty.concurrent.DefaultThreadFactory;
+import io.lighty.concurrent.DelayedTaskQueue;
 import io.lighty.concurrent.EventExecutor;
+import io.lighty.concurrent.RejectedTaskHandler;
 import io.lighty.EventLoop;
 import io.lighty.MultiThreadEventLoopGroup;
 
 import java.nio.channels.spi.SelectorProvider;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 public final class NioEventLoopGroup extends MultiThreadEventLoopGroup {
 
@@ -35,8 +39,31 @@ public final class NioEventLoopGroup extends MultiThreadEventLoopGroup {
         super(nThreads, threadFactory, selectorProvider);
     }
 
+    /**
+     * @param maxPendingTasks     the maximum number of tasks which may wait in the task queue of each event loop
+     * @param rejectedTaskHandler the handler to call when the task queue of an event loop is full
+     */
+    public NioEventLoopGroup(int nThreads, ThreadFactory threadFactory, SelectorProvider selectorProvider, int maxPendingTasks,
+                             RejectedTaskHandler rejectedTaskHandler) {
+        this(nThreads, threadFactory, selectorProvider, maxPendingTasks, rejectedTaskHandler, DelayedTaskQueue::newPriorityQueue);
+    }
+
+    /**
+     * @param delayedTaskQueueFactory the factory of the scheduled tasks store of each event loop,
+     *                                e.g. {@code DelayedTaskQueue::newHashedWheel}
+     */
+    public NioEventLoopGroup(int nThreads, ThreadFactory threadFactory, SelectorProvider selectorProvider, int maxPendingTasks,
+                             RejectedTaskHandler rejectedTaskHandler, Supplier<DelayedTaskQueue> delayedTaskQueueFactory) {
+        super(nThreads, threadFactory, selectorProvider, maxPendingTasks, rejectedTaskHandler, delayedTaskQueueFactory);
+    }
+
+    @SuppressWarnings("unchecked")
     @Override
     protected EventLoop newEventExecutor(Executor executor, Object... args) {
+        if (args.length > 1) {
+            return new NioEventLoop(this, (SelectorProvider) args[0], executor, (Integer) args[1], (RejectedTaskHandler) args[2],
+                    ((Supplier<DelayedTaskQueue>) args[3]).get());
+        }
         return new NioEventLoop(this, (SelectorProvider) args[0], executor);
     }
 
@@ -45,4 +72,30 @@ public final class NioEventLoopGroup extends MultiThreadEventLoopGroup {
             ((NioEventLoop) e).setIoRatio(ioRatio);
         }
     }
+
+    public void setAdaptiveIoRatio(int minIoRatio, int maxIoRatio, long targetTaskLatency, TimeUnit unit) {
+        for (EventExecutor e : children()) {
+            ((NioEventLoop) e).setAdaptiveIoRatio(minIoRatio, maxIoRatio, targetTaskLatency, unit);
+        }
+    }
+
+    public void setBusyPoll(long spinTime, TimeUnit unit, boolean spinWaitHint) {
+        for (EventExecutor e : children()) {
+            ((NioEventLoop) e).setBusyPoll(spinTime, unit, spinWaitHint);
+        }
+    }
+
+    public void setSelectorRebuildThreshold(int selectorRebuildThreshold) {
+        for (EventExecutor e : children()) {
+            ((NioEventLoop) e).setSelectorRebuildThreshold(selectorRebuildThreshold);
+        }
+    }
+
+    public long getSelectorRebuildCount() {
+        long count = 0;
+        for (EventExecutor e : children()) {
+            count += ((NioEventLoop) e).getSelectorRebuildCount();
+        }
+        return count;
+    }
 }
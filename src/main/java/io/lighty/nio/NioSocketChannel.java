@@ -4,6 +4,9 @@ import io.lighty.ChannelConfig;
 import io.lighty.ChannelException;
 import io.lighty.ChannelOutboundBuffer;
 import io.lighty.ChannelPromise;
+import io.lighty.buffer.ByteBufferPool;
+import io.lighty.buffer.FileRegion;
+import io.lighty.buffer.PooledBuffer;
 import io.lighty.buffer.RecvByteBufferAllocator;
 
 import java.io.IOException;
@@ -11,6 +14,7 @@ import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.nio.ByteBuffer;
 import java.nio.channels.SocketChannel;
+import java.util.Arrays;
 import java.util.List;
 
 public class NioSocketChannel extends AbstractNioChannel {
@@ -67,21 +71,30 @@ public class NioSocketChannel extends AbstractNioChannel {
         @Override
         protected int doReadMessages(List<Object> messages) throws Exception {
             RecvByteBufferAllocator.Handle allocHandle = allocHandle();
-            ByteBuffer buffer = allocHandle.allocate(config().getByteBufferPool());
+            ByteBufferPool pool = config().getByteBufferPool();
+            ByteBuffer buffer = allocHandle.allocate(pool);
 
             int bytesRead = 0;
             try {
                 bytesRead = javaChannel().read(buffer);
                 if (bytesRead > 0) {
                     buffer.flip();
-                    byte[] message = new byte[buffer.limit()];
-                    buffer.get(message);
-                    messages.add(message);
                     allocHandle.record(bytesRead);
+                    if (config().isZeroCopyRead()) {
+                        ByteBuffer detached = allocHandle.detach(pool, buffer);
+                        buffer = null;
+                        messages.add(PooledBuffer.wrap(detached, pool));
+                    } else {
+                        byte[] message = new byte[buffer.limit()];
+                        buffer.get(message);
+                        messages.add(message);
+                    }
                     return 1;
                 }
             } finally {
-                config().getByteBufferPool().release(buffer);
+                if (buffer != null) {
+                    allocHandle.release(pool, buffer);
+                }
             }
             return bytesRead;
         }
@@ -93,29 +106,28 @@ public class NioSocketChannel extends AbstractNioChannel {
 
         @Override
         protected void doWrite(ChannelOutboundBuffer channelOutboundBuffer) throws Exception {
-            if (channelOutboundBuffer.size() == 1) {
-                super.doWrite(channelOutboundBuffer);
-                return;
-            }
-
             NioSocketChannelOutboundBuffer outboundBuffer = (NioSocketChannelOutboundBuffer) channelOutboundBuffer;
-            long remainingBytes = outboundBuffer.remaining();
-            ByteBuffer[] buffers = outboundBuffer.byteBuffers();
-
-            for (int i = 0; i < config().getWriteSpinCount(); i++) {
-                long bytesWritten = javaChannel().write(buffers);
-
-                remainingBytes -= bytesWritten;
-                if (remainingBytes == 0) {
-                    break;
+            ByteBuffer[] nioBuffers = eventLoop().nioBuffers;
+
+            for (int i = 0; i < config().getWriteSpinCount() && !outboundBuffer.isEmpty(); i++) {
+                long bytesWritten;
+                Object message = outboundBuffer.current();
+                if (message instanceof FileRegion) {
+                    bytesWritten = ((FileRegion) message).transferTo(javaChannel());
+                } else {
+                    int count = outboundBuffer.nioBuffers(nioBuffers);
+                    try {
+                        bytesWritten = count == 1 ? javaChannel().write(nioBuffers[0]) : javaChannel().write(nioBuffers, 0, count);
+                    } finally {
+                        Arrays.fill(nioBuffers, 0, count, null);
+                    }
                 }
-            }
 
-            for (ByteBuffer buffer : buffers) {
-                if (buffer.hasRemaining()) {
+                // written buffers and regions were advanced in place, the rest is written on the next attempt
+                outboundBuffer.removeBytes(bytesWritten);
+                if (bytesWritten == 0) {
                     break;
                 }
-                outboundBuffer.remove();
             }
         }
 
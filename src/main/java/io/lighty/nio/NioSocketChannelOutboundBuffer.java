@@ -2,30 +2,74 @@ package io.lighty.nio;
 
 import io.lighty.Channel;
 import io.lighty.ChannelOutboundBuffer;
+import io.lighty.buffer.Buffers;
+import io.lighty.buffer.CompositeBuffer;
+import io.lighty.buffer.FileRegion;
+import io.lighty.buffer.PooledBuffer;
 
 import java.nio.ByteBuffer;
 
+/**
+ * {@link PooledBuffer}, {@link CompositeBuffer} and {@link FileRegion} messages are owned by the outbound buffer, they
+ * are written as they are and released once written. Other messages are copied into buffers acquired from the pool of
+ * the channel.
+ */
 final class NioSocketChannelOutboundBuffer extends ChannelOutboundBuffer {
 
     public NioSocketChannelOutboundBuffer(Channel channel) {
         super(channel);
     }
 
-    public ByteBuffer[] byteBuffers() {
-        ByteBuffer[] byteBuffers = new ByteBuffer[entries().size()];
-        int i = 0;
-        for (Entry entry : entries()) {
-            byteBuffers[i++] = (ByteBuffer) entry.getMessage();
+    /**
+     * Fills {@code nioBuffers} with buffers of queued messages starting from the first one, a composite message adds
+     * one buffer per component still to be written. Stops at a {@link FileRegion}, which is transferred on its own.
+     *
+     * @return number of buffers filled
+     */
+    int nioBuffers(ByteBuffer[] nioBuffers) {
+        int count = 0;
+        for (int i = 0; i < size() && count < nioBuffers.length; i++) {
+            NioEntry entry = (NioEntry) entry(i);
+            if (entry.getMessage() instanceof FileRegion) {
+                break;
+            }
+            if (entry.nioBuffer == null && entry.nioBuffers == null) {
+                initNioBuffers(entry);
+            }
+
+            if (entry.nioBuffer != null) {
+                nioBuffers[count++] = entry.nioBuffer;
+            } else {
+                for (ByteBuffer nioBuffer : entry.nioBuffers) {
+                    if (count == nioBuffers.length) {
+                        break;
+                    }
+                    if (nioBuffer.hasRemaining()) {
+                        nioBuffers[count++] = nioBuffer;
+                    }
+                }
+            }
         }
-        return byteBuffers;
+        return count;
     }
 
-    public long remaining() {
-        long bytes = 0;
-        for (Entry entry : entries()) {
-            bytes += ((ByteBuffer) entry.getMessage()).remaining();
+    /**
+     * Views are built once per message, partial writes advance them in place
+     */
+    private static void initNioBuffers(NioEntry entry) {
+        Object message = entry.getMessage();
+        if (message instanceof ByteBuffer) {
+            entry.nioBuffer = (ByteBuffer) message;
+        } else if (message instanceof PooledBuffer) {
+            entry.nioBuffer = ((PooledBuffer) message).nioBuffer();
+        } else {
+            entry.nioBuffers = ((CompositeBuffer) message).nioBuffers();
         }
-        return bytes;
+    }
+
+    @Override
+    protected Entry newEntry() {
+        return new NioEntry();
     }
 
     @Override
@@ -42,7 +86,10 @@ final class NioSocketChannelOutboundBuffer extends ChannelOutboundBuffer {
             buffer = channel().config().getByteBufferPool().acquire(byteBuffer.limit(), false);
             buffer.put(byteBuffer);
             buffer.flip();
+        } else if (message instanceof PooledBuffer || message instanceof CompositeBuffer || message instanceof FileRegion) {
+            return message;
         } else {
+            Buffers.safeRelease(message);
             throw new IllegalArgumentException("Wrong message type");
         }
         return buffer;
@@ -50,6 +97,26 @@ final class NioSocketChannelOutboundBuffer extends ChannelOutboundBuffer {
 
     @Override
     protected void clearEntry(Entry entry) {
-        channel().config().getByteBufferPool().release((ByteBuffer) entry.getMessage());
+        NioEntry nioEntry = (NioEntry) entry;
+        nioEntry.nioBuffer = null;
+        nioEntry.nioBuffers = null;
+
+        Object message = entry.getMessage();
+        if (message instanceof ByteBuffer) {
+            channel().config().getByteBufferPool().release((ByteBuffer) message);
+        } else {
+            super.clearEntry(entry);
+        }
+    }
+
+    private static final class NioEntry extends Entry {
+        /**
+         * View of a single buffer message
+         */
+        private ByteBuffer nioBuffer;
+        /**
+         * Views of components of a composite message
+         */
+        private ByteBuffer[] nioBuffers;
     }
 }
@@ -0,0 +1,74 @@
+package io.lighty.nio;
+
+import java.nio.channels.SelectionKey;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Flat array-backed replacement for the selected-key set of a {@link java.nio.channels.Selector}. <br/>
+ * The selector only ever adds keys to it, {@link NioEventLoop} scans it by index and resets it in bulk,
+ * so no iterator, hashing or node allocation happens per ready key.
+ */
+final class SelectedSelectionKeySet extends AbstractSet<SelectionKey> {
+
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    SelectionKey[] keys = new SelectionKey[DEFAULT_CAPACITY];
+    int size;
+
+    @Override
+    public boolean add(SelectionKey key) {
+        if (key == null) {
+            return false;
+        }
+
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size << 1);
+        }
+        keys[size++] = key;
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return false;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return false;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<SelectionKey> iterator() {
+        return new Iterator<SelectionKey>() {
+
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            public SelectionKey next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return keys[index++];
+            }
+        };
+    }
+
+    void reset() {
+        Arrays.fill(keys, 0, size, null);
+        size = 0;
+    }
+}
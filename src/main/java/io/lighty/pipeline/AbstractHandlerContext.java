@@ -3,6 +3,7 @@ package io.lighty.pipeline;
 import io.lighty.Channel;
 import io.lighty.ChannelFuture;
 import io.lighty.ChannelPromise;
+import io.lighty.buffer.Buffers;
 
 public abstract class AbstractHandlerContext implements HandlerContext {
 
@@ -10,8 +11,8 @@ public abstract class AbstractHandlerContext implements HandlerContext {
     volatile Runnable unregisteredEvent;
     volatile Runnable openEvent;
     volatile Runnable closeEvent;
-    volatile Runnable disconnectEvent;
-    volatile Runnable readEvent;
+    volatile Runnable writabilityChangedEvent;
+    volatile Runnable flushEvent;
 
     volatile boolean removed = true;
 
@@ -89,6 +90,7 @@ public abstract class AbstractHandlerContext implements HandlerContext {
     @Override
     public void fireMessageReceived(Object message) {
         AbstractHandlerContext next = findContextInbound();
+        Buffers.touch(message, next);
         next.invoker().invokeOnMessageReceived(next, message);
     }
 
@@ -98,6 +100,12 @@ public abstract class AbstractHandlerContext implements HandlerContext {
         next.invoker().invokeOnClosed(next);
     }
 
+    @Override
+    public void fireWritabilityChanged() {
+        AbstractHandlerContext next = findContextInbound();
+        next.invoker().invokeOnWritabilityChanged(next);
+    }
+
     @Override
     public void fireExceptionCaught(Throwable e) {
         AbstractHandlerContext next = findContextInbound();
@@ -124,10 +132,29 @@ public abstract class AbstractHandlerContext implements HandlerContext {
     @Override
     public ChannelFuture write(Object message, ChannelPromise channelPromise) {
         AbstractHandlerContext prev = findContextOutbound();
+        Buffers.touch(message, prev);
         prev.invoker().invokeOnMessageSent(prev, message, channelPromise);
         return channelPromise;
     }
 
+    @Override
+    public void flush() {
+        AbstractHandlerContext prev = findContextOutbound();
+        prev.invoker().invokeOnFlush(prev);
+    }
+
+    @Override
+    public ChannelFuture writeAndFlush(Object message) {
+        return writeAndFlush(message, channel.newChannelPromise());
+    }
+
+    @Override
+    public ChannelFuture writeAndFlush(Object message, ChannelPromise channelPromise) {
+        write(message, channelPromise);
+        flush();
+        return channelPromise;
+    }
+
     @Override
     public ChannelFuture close() {
         return close(channel.newChannelPromise());
@@ -0,0 +1,95 @@
+package io.lighty.pipeline;
+
+import io.lighty.Channel;
+import io.lighty.concurrent.GlobalEventExecutor;
+import io.lighty.concurrent.SingleThreadEventExecutor;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Invoker for handlers offloaded from the event loop to another executor, e.g. one of
+ * {@link io.lighty.concurrent.DefaultEventExecutorGroup}. Once the executor has {@code highWaterMark} tasks queued
+ * after a received message, reading from the channel is suspended until the executor has worked off its backlog,
+ * so a slow handler throttles its peer instead of filling the queue. Reading is suspended with
+ * {@link Channel#suspendRead(Object)}, so it is not resumed while anything else still holds it off. <br/>
+ * Keeps state of one channel, create an instance per channel.
+ */
+public class BackpressureHandlerContextInvoker extends DefaultHandlerContextInvoker {
+
+    private static final long RESUME_RETRY_MILLIS = 1;
+
+    private final int highWaterMark;
+    /**
+     * Accessed from the event loop of the channel only
+     */
+    private boolean readSuspended;
+
+    /**
+     * @param highWaterMark number of queued tasks of {@code executor} at which reading is suspended,
+     *                      should be below the maximum number of pending tasks of {@code executor}
+     */
+    public BackpressureHandlerContextInvoker(SingleThreadEventExecutor executor, int highWaterMark) {
+        super(executor);
+        if (highWaterMark < 1) {
+            throw new IllegalArgumentException("highWaterMark must be > 0");
+        }
+        this.highWaterMark = highWaterMark;
+    }
+
+    @Override
+    protected SingleThreadEventExecutor executor() {
+        return (SingleThreadEventExecutor) super.executor();
+    }
+
+    @Override
+    public void invokeOnMessageReceived(HandlerContext context, Object message) {
+        super.invokeOnMessageReceived(context, message);
+
+        Channel channel = context.channel();
+        if (!readSuspended && channel.eventLoop().inExecutorThread() && executor().queuedTasks() >= highWaterMark) {
+            readSuspended = true;
+            channel.suspendRead(this);
+            resumeWhenDrained(channel);
+        }
+    }
+
+    private void resumeWhenDrained(Channel channel) {
+        try {
+            // queued behind the backlog, runs once everything submitted before it is done
+            executor().execute(() -> resumeInEventLoop(channel));
+        } catch (RejectedExecutionException e) {
+            if (executor().isShuttingDown()) {
+                resumeRead(channel);
+            } else {
+                channel.eventLoop().schedule(() -> resumeWhenDrained(channel), RESUME_RETRY_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Runs off the event loop, hands resuming over to it and retries while its task queue is full
+     */
+    private void resumeInEventLoop(Channel channel) {
+        try {
+            channel.eventLoop().execute(() -> resumeRead(channel));
+        } catch (RejectedExecutionException e) {
+            if (channel.eventLoop().isShuttingDown()) {
+                // nothing is read any more, only clears the suspension
+                resumeRead(channel);
+                return;
+            }
+            // the task queue of the event loop is full
+            try {
+                executor().schedule(() -> resumeInEventLoop(channel), RESUME_RETRY_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException ignore) {
+                GlobalEventExecutor.INSTANCE.schedule(() -> resumeInEventLoop(channel), RESUME_RETRY_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private void resumeRead(Channel channel) {
+        readSuspended = false;
+        channel.resumeRead(this);
+    }
+}
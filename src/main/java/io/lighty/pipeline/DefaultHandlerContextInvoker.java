@@ -13,6 +13,10 @@ public class DefaultHandlerContextInvoker implements HandlerContextInvoker {
         this.executor = executor;
     }
 
+    protected EventExecutor executor() {
+        return executor;
+    }
+
     @Override
     public void invokeOnRegistered(final HandlerContext context) {
         if (executor.inExecutorThread()) {
@@ -60,12 +64,8 @@ public class DefaultHandlerContextInvoker implements HandlerContextInvoker {
         if (executor.inExecutorThread()) {
             invokeOnReadNow(context, channelPromise);
         } else {
-            AbstractHandlerContext dctx = (AbstractHandlerContext) context;
-            Runnable event = dctx.readEvent;
-            if (event == null) {
-                dctx.readEvent = event = () -> invokeOnReadNow(context, channelPromise);
-            }
-            executor.execute(event);
+            // not cached, the event is bound to its promise
+            executor.execute(() -> invokeOnReadNow(context, channelPromise));
         }
     }
 
@@ -89,6 +89,20 @@ public class DefaultHandlerContextInvoker implements HandlerContextInvoker {
         }
     }
 
+    @Override
+    public void invokeOnFlush(final HandlerContext context) {
+        if (executor.inExecutorThread()) {
+            invokeOnFlushNow(context);
+        } else {
+            AbstractHandlerContext dctx = (AbstractHandlerContext) context;
+            Runnable event = dctx.flushEvent;
+            if (event == null) {
+                dctx.flushEvent = event = () -> invokeOnFlushNow(context);
+            }
+            executor.execute(event);
+        }
+    }
+
     @Override
     public void invokeOnClosing(final HandlerContext context, final ChannelPromise channelPromise) {
         if (executor.inExecutorThread()) {
@@ -113,19 +127,28 @@ public class DefaultHandlerContextInvoker implements HandlerContextInvoker {
     }
 
     @Override
-    public void invokeOnDisconnect(final HandlerContext context, final ChannelPromise channelPromise) {
+    public void invokeOnWritabilityChanged(final HandlerContext context) {
         if (executor.inExecutorThread()) {
-            invokeOnDisconnectNow(context, channelPromise);
+            invokeOnWritabilityChangedNow(context);
         } else {
             AbstractHandlerContext dctx = (AbstractHandlerContext) context;
-            Runnable event = dctx.disconnectEvent;
+            Runnable event = dctx.writabilityChangedEvent;
             if (event == null) {
-                dctx.disconnectEvent = event = () -> invokeOnDisconnectNow(context, channelPromise);
+                dctx.writabilityChangedEvent = event = () -> invokeOnWritabilityChangedNow(context);
             }
             executor.execute(event);
         }
     }
 
+    @Override
+    public void invokeOnDisconnect(final HandlerContext context, final ChannelPromise channelPromise) {
+        if (executor.inExecutorThread()) {
+            invokeOnDisconnectNow(context, channelPromise);
+        } else {
+            executor.execute(() -> invokeOnDisconnectNow(context, channelPromise));
+        }
+    }
+
     @Override
     public void invokeOnExceptionCaught(final HandlerContext context, final Throwable e) {
         if (executor.inExecutorThread()) {
@@ -5,6 +5,7 @@ import io.lighty.Channel;
 import io.lighty.Channel.Unsafe;
 import io.lighty.ChannelPromise;
 import io.lighty.Handler;
+import io.lighty.buffer.Buffers;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -72,6 +73,11 @@ public class DefaultPipeline implements Pipeline, Iterable<AbstractHandlerContex
         tail.write(message, channelPromise);
     }
 
+    @Override
+    public void fireFlush() {
+        tail.flush();
+    }
+
     @Override
     public void fireClosing(ChannelPromise channelPromise) {
         tail.close(channelPromise);
@@ -82,6 +88,11 @@ public class DefaultPipeline implements Pipeline, Iterable<AbstractHandlerContex
         head.fireClose();
     }
 
+    @Override
+    public void fireWritabilityChanged() {
+        head.fireWritabilityChanged();
+    }
+
     @Override
     public void fireExceptionCaught(Throwable e) {
         head.fireExceptionCaught(e);
@@ -638,6 +649,11 @@ public class DefaultPipeline implements Pipeline, Iterable<AbstractHandlerContex
             context.fireClose();
         }
 
+        @Override
+        public void onWritabilityChanged(HandlerContext context) {
+            context.fireWritabilityChanged();
+        }
+
         @Override
         public void onExceptionCaught(HandlerContext context, Throwable e) {
             context.fireExceptionCaught(e);
@@ -658,6 +674,11 @@ public class DefaultPipeline implements Pipeline, Iterable<AbstractHandlerContex
             unsafe.write(message, channelPromise);
         }
 
+        @Override
+        public void onFlush(HandlerContext context) {
+            unsafe.flush();
+        }
+
         @Override
         public void onClosing(HandlerContext context, ChannelPromise channelPromise) {
             unsafe.close(channelPromise);
@@ -708,8 +729,14 @@ public class DefaultPipeline implements Pipeline, Iterable<AbstractHandlerContex
         public void onMessageSent(HandlerContext context, Object message, ChannelPromise channelPromise) {
         }
 
+        @Override
+        public void onFlush(HandlerContext context) {
+        }
+
         @Override
         public void onMessageReceived(HandlerContext context, Object message) {
+            // nobody consumed the message
+            Buffers.safeRelease(message);
         }
 
         @Override
@@ -724,6 +751,10 @@ public class DefaultPipeline implements Pipeline, Iterable<AbstractHandlerContex
         public void onClose(HandlerContext context) {
         }
 
+        @Override
+        public void onWritabilityChanged(HandlerContext context) {
+        }
+
         @Override
         public void onExceptionCaught(HandlerContext context, Throwable e) {
             logger.warn("Uncaught exception reached end of pipeline, check your pipeline configuration");
@@ -23,6 +23,8 @@ public interface HandlerContext {
 
     void fireClose();
 
+    void fireWritabilityChanged();
+
     void fireExceptionCaught(Throwable e);
 
     ChannelFuture read();
@@ -33,6 +35,12 @@ public interface HandlerContext {
 
     ChannelFuture write(Object message, ChannelPromise channelPromise);
 
+    void flush();
+
+    ChannelFuture writeAndFlush(Object message);
+
+    ChannelFuture writeAndFlush(Object message, ChannelPromise channelPromise);
+
     ChannelFuture close();
 
     ChannelFuture close(ChannelPromise channelPromise);
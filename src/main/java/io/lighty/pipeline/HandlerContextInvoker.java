@@ -16,10 +16,14 @@ public interface HandlerContextInvoker {
 
     void invokeOnMessageSent(HandlerContext context, Object message, ChannelPromise channelPromise);
 
+    void invokeOnFlush(HandlerContext context);
+
     void invokeOnClosing(HandlerContext context, ChannelPromise channelPromise);
 
     void invokeOnClosed(HandlerContext context);
 
+    void invokeOnWritabilityChanged(HandlerContext context);
+
     void invokeOnDisconnect(HandlerContext context, ChannelPromise channelPromise);
 
     void invokeOnExceptionCaught(HandlerContext context, Throwable e);
@@ -57,6 +57,14 @@ public final class HandlerContextInvokerUtils {
         }
     }
 
+    public static void invokeOnFlushNow(HandlerContext context) {
+        try {
+            context.handler().onFlush(context);
+        } catch (Throwable e) {
+            context.handler().onExceptionCaught(context, e);
+        }
+    }
+
     public static void invokeOnClosingNow(HandlerContext context, ChannelPromise channelPromise) {
         try {
             context.handler().onClosing(context, channelPromise);
@@ -73,6 +81,14 @@ public final class HandlerContextInvokerUtils {
         }
     }
 
+    public static void invokeOnWritabilityChangedNow(HandlerContext context) {
+        try {
+            context.handler().onWritabilityChanged(context);
+        } catch (Throwable e) {
+            context.handler().onExceptionCaught(context, e);
+        }
+    }
+
     public static void invokeOnDisconnectNow(HandlerContext context, ChannelPromise channelPromise) {
         try {
             context.handler().onDisconnect(context, channelPromise);
@@ -100,7 +100,11 @@ public interface Pipeline {
 
     void fireMessageSent(Object message, ChannelPromise channelPromise);
 
+    void fireFlush();
+
     void fireClosing(ChannelPromise channelPromise);
 
     void fireClose();
+
+    void fireWritabilityChanged();
 }
@@ -0,0 +1,49 @@
+package io.lighty;
+
+import io.lighty.nio.NioSocketChannel;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class AbstractChannelTest {
+
+    private Channel channel;
+
+    @Before
+    public void setUp() {
+        channel = new NioSocketChannel();
+        channel.config().setAutoRead(true);
+    }
+
+    @After
+    public void tearDown() {
+        channel.unsafe().closeForcibly();
+    }
+
+    @Test
+    public void readResumesOnceEveryReasonIsWithdrawn() {
+        Object backlog = new Object();
+        Object peer = new Object();
+
+        channel.suspendRead(backlog);
+        channel.suspendRead(peer);
+        assertFalse(channel.config().isAutoRead());
+
+        channel.resumeRead(backlog);
+        assertFalse(channel.config().isAutoRead());
+        channel.resumeRead(backlog);
+        assertFalse(channel.config().isAutoRead());
+
+        channel.resumeRead(peer);
+        assertTrue(channel.config().isAutoRead());
+    }
+
+    @Test
+    public void resumeWithoutSuspendLeavesAutoReadAlone() {
+        channel.config().setAutoRead(false);
+        channel.resumeRead(new Object());
+        assertFalse(channel.config().isAutoRead());
+    }
+}
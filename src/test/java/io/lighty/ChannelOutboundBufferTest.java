@@ -0,0 +1,150 @@
+package io.lighty;
+
+import io.lighty.nio.NioSocketChannel;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ChannelOutboundBufferTest {
+
+    private Channel channel;
+    private ChannelOutboundBuffer buffer;
+
+    @Before
+    public void setUp() {
+        // never registered, so writability changes are not fired
+        channel = new NioSocketChannel();
+        buffer = new ChannelOutboundBuffer(channel);
+    }
+
+    @After
+    public void tearDown() {
+        channel.unsafe().closeForcibly();
+    }
+
+    private ChannelPromise add(byte[] message) {
+        ChannelPromise promise = new DefaultChannelPromise(channel);
+        buffer.addMessage(message, promise);
+        return promise;
+    }
+
+    @Test
+    public void growsWhileWrappedAroundAndKeepsOrder() {
+        List<byte[]> messages = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            messages.add(new byte[i + 1]);
+        }
+
+        for (int i = 0; i < 10; i++) {
+            add(messages.get(i));
+        }
+        for (int i = 0; i < 8; i++) {
+            buffer.remove();
+        }
+        // head is in the middle of the ring when it fills up
+        for (int i = 10; i < 40; i++) {
+            add(messages.get(i));
+        }
+        assertEquals(32, buffer.capacity());
+        assertEquals(32, buffer.size());
+
+        int i = 8;
+        for (Object message : buffer) {
+            assertSame(messages.get(i++), message);
+        }
+        assertEquals(40, i);
+
+        long pendingBytes = 0;
+        for (i = 8; i < 40; i++) {
+            pendingBytes += i + 1;
+        }
+        assertEquals(pendingBytes, buffer.pendingBytes());
+        for (i = 8; i < 40; i++) {
+            assertSame(messages.get(i), buffer.current());
+            buffer.remove();
+        }
+        assertTrue(buffer.isEmpty());
+        assertEquals(0, buffer.pendingBytes());
+    }
+
+    @Test
+    public void shrinksOnceDrained() {
+        for (int i = 0; i < 100; i++) {
+            add(new byte[1]);
+        }
+        assertEquals(128, buffer.capacity());
+
+        buffer.removeBytes(99);
+        assertEquals(128, buffer.capacity());
+        buffer.removeBytes(1);
+        assertEquals(16, buffer.capacity());
+
+        byte[] message = new byte[3];
+        add(message);
+        assertSame(message, buffer.current());
+        assertEquals(3, buffer.pendingBytes());
+    }
+
+    @Test
+    public void removeBytesAccountsPartialWritesAcrossEntries() {
+        ChannelPromise first = add(new byte[10]);
+        ChannelPromise second = add(new byte[20]);
+        ChannelPromise third = add(new byte[30]);
+        assertEquals(60, buffer.pendingBytes());
+
+        buffer.removeBytes(15);
+        assertTrue(first.isSuccess());
+        assertFalse(second.isDone());
+        assertEquals(2, buffer.size());
+        assertEquals(45, buffer.pendingBytes());
+
+        buffer.removeBytes(20);
+        assertTrue(second.isSuccess());
+        assertFalse(third.isDone());
+        assertEquals(1, buffer.size());
+        assertEquals(25, buffer.pendingBytes());
+
+        buffer.removeBytes(0);
+        assertFalse(third.isDone());
+        buffer.removeBytes(25);
+        assertTrue(third.isSuccess());
+        assertTrue(buffer.isEmpty());
+        assertEquals(0, buffer.pendingBytes());
+    }
+
+    @Test
+    public void turnsUnwritableAboveHighWaterMarkUntilLowWaterMark() {
+        channel.config().setWriteBufferHighWaterMark(100);
+        channel.config().setWriteBufferLowWaterMark(50);
+
+        add(new byte[60]);
+        add(new byte[40]);
+        assertTrue(buffer.isWritable());
+        add(new byte[1]);
+        assertFalse(buffer.isWritable());
+
+        buffer.removeBytes(50);
+        assertFalse(buffer.isWritable());
+        buffer.removeBytes(1);
+        assertTrue(buffer.isWritable());
+    }
+
+    @Test
+    public void clearFailsPendingPromises() {
+        ChannelPromise first = add(new byte[10]);
+        ChannelPromise second = add(new byte[10]);
+        buffer.removeBytes(5);
+
+        ChannelException cause = new ChannelException("closed");
+        buffer.clear(cause);
+        assertSame(cause, first.getCause());
+        assertSame(cause, second.getCause());
+        assertTrue(buffer.isEmpty());
+        assertEquals(0, buffer.pendingBytes());
+    }
+}
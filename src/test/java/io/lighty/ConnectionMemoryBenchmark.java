@@ -0,0 +1,185 @@
+package io.lighty;
+
+import io.lighty.buffer.AdaptiveRecvByteBufferAllocator;
+import io.lighty.buffer.ArrayByteBufferPool;
+import io.lighty.buffer.ByteBufferPool;
+import io.lighty.buffer.PooledBuffer;
+import io.lighty.buffer.RecvByteBufferAllocator;
+import io.lighty.buffer.SharedRecvByteBufferAllocator;
+import io.lighty.nio.NioEventLoopGroup;
+import io.lighty.nio.NioServerSocketChannel;
+import io.lighty.pipeline.HandlerContext;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures pooled memory held per connection and acquired per read with a given receive buffer allocator. <br/>
+ * Opens {@code connections} client connections to a server whose handlers keep the last message received, as a server
+ * waiting for the rest of a partial stanza does, and sends each of them messages of random size. Once the server has
+ * received everything it reports the pooled bytes held per connection and the pooled bytes acquired per read, counted
+ * by a wrapper of the pool so garbage collections do not blur them. The buffer each event loop reads into with the
+ * shared allocator is not pooled and not counted, it is 64 KB per event loop. <br/>
+ * Usage: {@code ConnectionMemoryBenchmark <adaptive|shared> [connections] [port]}, run from the test classpath.
+ */
+public final class ConnectionMemoryBenchmark {
+
+    private static final int DEFAULT_CONNECTIONS = 5000;
+    private static final int DEFAULT_PORT = 19997;
+    private static final int MESSAGES_PER_CONNECTION = 3;
+    private static final int MIN_MESSAGE_SIZE = 50;
+    private static final int MAX_MESSAGE_SIZE = 3050;
+    private static final long RECEIVE_TIMEOUT_MILLIS = 60000;
+
+    private ConnectionMemoryBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            throw new IllegalArgumentException("Usage: ConnectionMemoryBenchmark <adaptive|shared> [connections] [port]");
+        }
+        RecvByteBufferAllocator allocator = allocator(args[0]);
+        int connections = args.length > 1 ? Integer.parseUnsignedInt(args[1]) : DEFAULT_CONNECTIONS;
+        int port = args.length > 2 ? Integer.parseUnsignedInt(args[2]) : DEFAULT_PORT;
+        if (connections == 0) {
+            throw new IllegalArgumentException("connections must be > 0");
+        }
+
+        CountingPool pool = new CountingPool(new ArrayByteBufferPool());
+        LongAdder reads = new LongAdder();
+        LongAdder received = new LongAdder();
+        InetSocketAddress address = new InetSocketAddress("127.0.0.1", port);
+        Bootstrap bootstrap = new Bootstrap().channelClass(NioServerSocketChannel.class)
+                .group(new NioEventLoopGroup(2))
+                .childOption(ChannelOption.RECV_BYTE_BUFFER_ALLOCATOR, allocator)
+                .childOption(ChannelOption.BYTE_BUFFER_POOL, pool)
+                .childOption(ChannelOption.ZERO_COPY_READ, true);
+        bootstrap.addChildHandler(new ChannelInitializer() {
+            @Override
+            protected void initialize(Channel channel) {
+                channel.pipeline().addLast(new LastMessageHandler(reads, received));
+            }
+        });
+        bootstrap.bind(address).sync();
+
+        List<SocketChannel> clients = new ArrayList<>(connections);
+        try {
+            for (int i = 0; i < connections; i++) {
+                clients.add(SocketChannel.open(address));
+            }
+
+            long sent = 0;
+            Random random = new Random(1);
+            for (int i = 0; i < MESSAGES_PER_CONNECTION; i++) {
+                for (SocketChannel client : clients) {
+                    ByteBuffer message = ByteBuffer.allocate(MIN_MESSAGE_SIZE + random.nextInt(MAX_MESSAGE_SIZE - MIN_MESSAGE_SIZE));
+                    sent += message.remaining();
+                    while (message.hasRemaining()) {
+                        client.write(message);
+                    }
+                }
+            }
+
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(RECEIVE_TIMEOUT_MILLIS);
+            while (received.sum() < sent && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            if (received.sum() < sent) {
+                throw new IllegalStateException("received " + received.sum() + " of " + sent + " bytes");
+            }
+
+            System.out.printf("%s: %d connections, %d reads, %d B held per connection, %d B acquired per read%n",
+                    args[0], connections, reads.sum(), pool.outstandingBytes.sum() / connections,
+                    pool.acquiredBytes.sum() / reads.sum());
+        } finally {
+            for (SocketChannel client : clients) {
+                client.close();
+            }
+            bootstrap.shutdownGracefully();
+        }
+    }
+
+    private static RecvByteBufferAllocator allocator(String name) {
+        switch (name) {
+            case "adaptive":
+                return AdaptiveRecvByteBufferAllocator.DEFAULT;
+            case "shared":
+                return SharedRecvByteBufferAllocator.DEFAULT;
+            default:
+                throw new IllegalArgumentException("Unknown receive allocator " + name);
+        }
+    }
+
+    /**
+     * Keeps the last message received and releases the one before
+     */
+    private static final class LastMessageHandler extends AbstractHandler<Object, Object> {
+
+        private final LongAdder reads;
+        private final LongAdder received;
+        private PooledBuffer last;
+
+        LastMessageHandler(LongAdder reads, LongAdder received) {
+            this.reads = reads;
+            this.received = received;
+        }
+
+        @Override
+        public void onMessageReceived(HandlerContext context, Object message) {
+            PooledBuffer buffer = (PooledBuffer) message;
+            if (last != null) {
+                last.release();
+            }
+            last = buffer;
+            reads.increment();
+            received.add(buffer.readableBytes());
+        }
+
+        @Override
+        public void onClose(HandlerContext context) {
+            if (last != null) {
+                last.release();
+                last = null;
+            }
+        }
+    }
+
+    /**
+     * Counts bytes of buffers acquired in total and not released yet
+     */
+    private static final class CountingPool implements ByteBufferPool {
+
+        private final ByteBufferPool pool;
+        private final LongAdder acquiredBytes = new LongAdder();
+        private final LongAdder outstandingBytes = new LongAdder();
+
+        CountingPool(ByteBufferPool pool) {
+            this.pool = pool;
+        }
+
+        @Override
+        public ByteBuffer acquire(int size, boolean direct) {
+            ByteBuffer buffer = pool.acquire(size, direct);
+            acquiredBytes.add(buffer.capacity());
+            outstandingBytes.add(buffer.capacity());
+            return buffer;
+        }
+
+        @Override
+        public void release(ByteBuffer buffer) {
+            outstandingBytes.add(-buffer.capacity());
+            pool.release(buffer);
+        }
+
+        @Override
+        public void clear() {
+            pool.clear();
+        }
+    }
+}
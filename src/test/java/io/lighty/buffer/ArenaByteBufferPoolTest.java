@@ -0,0 +1,134 @@
+package io.lighty.buffer;
+
+import io.lighty.AbstractHandler;
+import io.lighty.Bootstrap;
+import io.lighty.Channel;
+import io.lighty.ChannelInitializer;
+import io.lighty.ChannelOption;
+import io.lighty.nio.NioEventLoopGroup;
+import io.lighty.nio.NioServerSocketChannel;
+import io.lighty.pipeline.HandlerContext;
+import org.junit.Test;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ArenaByteBufferPoolTest {
+
+    @Test
+    public void takesBackOnlyBuffersCutFromItsChunks() {
+        ArenaByteBufferPool pool = new ArenaByteBufferPool(64, 1024, 4096, 4, 2);
+        for (boolean direct : new boolean[]{false, true}) {
+            ByteBuffer foreign = direct ? ByteBuffer.allocateDirect(256) : ByteBuffer.allocate(256);
+            pool.release(foreign);
+            ByteBuffer buffer = pool.acquire(200, direct);
+            assertNotSame(foreign, buffer);
+            assertEquals(256, buffer.capacity());
+            assertEquals(direct, buffer.isDirect());
+
+            pool.release(buffer);
+            assertSame(buffer, pool.acquire(256, direct));
+        }
+        assertEquals(2, pool.getChunks());
+    }
+
+    @Test
+    public void heapBuffersAreSlicesOfTheirChunk() {
+        ArenaByteBufferPool pool = new ArenaByteBufferPool(64, 1024, 4096, 4, 1);
+        ByteBuffer first = pool.acquire(64, false);
+        ByteBuffer second = pool.acquire(64, false);
+        assertSame(first.array(), second.array());
+        assertEquals(first.arrayOffset() + 64, second.arrayOffset());
+
+        second.put(0, (byte) 1);
+        assertEquals(1, second.array()[second.arrayOffset()]);
+        assertEquals(0, first.get(0));
+    }
+
+    @Test
+    public void servesUnpooledBuffersBeyondMaxChunks() {
+        ArenaByteBufferPool pool = new ArenaByteBufferPool(64, 1024, 4096, 4, 2);
+        List<ByteBuffer> buffers = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            buffers.add(pool.acquire(1024, true));
+        }
+        assertEquals(2, pool.getChunks());
+
+        ByteBuffer unpooled = buffers.get(9);
+        pool.release(unpooled);
+        assertNotSame(unpooled, pool.acquire(1024, true));
+        pool.release(buffers.get(0));
+        assertSame(buffers.get(0), pool.acquire(1024, true));
+    }
+
+    @Test
+    public void ignoresBuffersOfChunksDroppedByClear() {
+        ArenaByteBufferPool pool = new ArenaByteBufferPool(64, 1024, 4096, 4, 2);
+        ByteBuffer buffer = pool.acquire(1024, true);
+        pool.clear();
+        assertEquals(0, pool.getChunks());
+
+        pool.release(buffer);
+        assertNotSame(buffer, pool.acquire(1024, true));
+        assertEquals(1, pool.getChunks());
+    }
+
+    @Test(timeout = 30000)
+    public void echoesAsByteBufferPoolOfChannels() throws Exception {
+        ArenaByteBufferPool pool = new ArenaByteBufferPool();
+        Bootstrap bootstrap = new Bootstrap().channelClass(NioServerSocketChannel.class)
+                .group(new NioEventLoopGroup(1))
+                .childOption(ChannelOption.BYTE_BUFFER_POOL, pool)
+                .childOption(ChannelOption.ZERO_COPY_READ, true);
+        bootstrap.addChildHandler(new ChannelInitializer() {
+            @Override
+            protected void initialize(Channel channel) {
+                channel.pipeline().addLast(new AbstractHandler<Object, Object>() {
+                    @Override
+                    public void onMessageReceived(HandlerContext context, Object message) {
+                        context.channel().write(message);
+                    }
+                });
+            }
+        });
+        InetSocketAddress address = new InetSocketAddress("127.0.0.1", 0);
+        Channel server = bootstrap.bind(address).sync().channel();
+
+        try (Socket socket = new Socket("127.0.0.1", ((InetSocketAddress) server.getLocalAddress()).getPort())) {
+            byte[] data = new byte[1 << 20];
+            new Random(1).nextBytes(data);
+            Thread writer = new Thread(() -> {
+                try {
+                    OutputStream out = socket.getOutputStream();
+                    for (int i = 0; i < data.length; i += 3000) {
+                        out.write(data, i, Math.min(3000, data.length - i));
+                    }
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            writer.start();
+
+            InputStream in = socket.getInputStream();
+            byte[] received = new byte[data.length];
+            int offset = 0;
+            int n;
+            while (offset < received.length && (n = in.read(received, offset, received.length - offset)) > 0) {
+                offset += n;
+            }
+            writer.join();
+            assertArrayEquals(data, received);
+            assertTrue(pool.getChunks() > 0);
+        } finally {
+            bootstrap.shutdownGracefully();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package io.lighty.buffer;
+
+import io.lighty.concurrent.DefaultEventExecutor;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class ArrayByteBufferPoolTest {
+
+    @Test(timeout = 30000)
+    public void concurrentReleasesStayWithinBucketLimit() throws Exception {
+        ArrayByteBufferPool pool = new ArrayByteBufferPool(1 << 20, 0, 0, TimeUnit.MILLISECONDS);
+        pool.setMaxBucketRetainedBytes(10 * 1024);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 2000; i++) {
+                    pool.release(ByteBuffer.allocate(1024));
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(10 * 1024, pool.getRetainedBytes());
+        assertEquals(8 * 2000 - 10, pool.stats().getRejectedReleases());
+    }
+
+    @Test(timeout = 30000)
+    public void trimsIdleSharedBuckets() throws Exception {
+        ArrayByteBufferPool pool = new ArrayByteBufferPool(1 << 20, 0, 20, TimeUnit.MILLISECONDS);
+        DefaultEventExecutor executor = new DefaultEventExecutor();
+        try {
+            executor.submit(() -> pool.release(pool.acquire(1024, false))).get();
+            assertEquals(1024, pool.getRetainedBytes());
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (pool.getRetainedBytes() != 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(0, pool.getRetainedBytes());
+            assertEquals(1, pool.stats().getTrimmedBuffers());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void linearSizesFitTheSmallestBucket() {
+        ArrayByteBufferPool pool = new ArrayByteBufferPool(0, 24, 240, 0);
+        assertEquals(24, pool.acquire(1, false).capacity());
+        assertEquals(24, pool.acquire(24, false).capacity());
+        assertEquals(48, pool.acquire(25, false).capacity());
+        assertEquals(48, pool.acquire(32, false).capacity());
+        assertEquals(240, pool.acquire(240, false).capacity());
+        assertEquals(241, pool.acquire(241, false).capacity());
+
+        pool.release(ByteBuffer.allocate(24));
+        pool.release(ByteBuffer.allocate(72));
+        pool.release(ByteBuffer.allocate(32));
+        assertEquals(24 + 72, pool.getRetainedBytes());
+        assertEquals(1, pool.stats().getUnmatchedReleases());
+        assertEquals(24, pool.acquire(10, false).capacity());
+        assertEquals(72, pool.acquire(49, false).capacity());
+        assertEquals(0, pool.getRetainedBytes());
+    }
+
+    @Test(timeout = 30000)
+    public void countsThreadCacheBytesAtSnapshot() throws Exception {
+        ArrayByteBufferPool pool = new ArrayByteBufferPool(1 << 20, 8, 0, TimeUnit.MILLISECONDS);
+        DefaultEventExecutor executor = new DefaultEventExecutor();
+        executor.submit(() -> {
+            ByteBuffer first = pool.acquire(1024, true);
+            ByteBuffer second = pool.acquire(1024, true);
+            pool.release(first);
+            pool.release(second);
+            pool.release(pool.acquire(100, false));
+        }).get();
+
+        assertEquals(2 * 1024 + 112, pool.getThreadCacheBytes());
+        assertEquals(2 * 1024, pool.stats().getDirectThreadCacheBytes());
+        assertEquals(112, pool.stats().getHeapThreadCacheBytes());
+
+        executor.shutdownGracefully().await();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (pool.getRetainedBytes() != 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, pool.getThreadCacheBytes());
+        assertEquals(0, pool.getRetainedBytes());
+    }
+}
@@ -0,0 +1,165 @@
+package io.lighty.buffer;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CompositeBufferTest {
+
+    private final List<PooledBuffer> added = new ArrayList<>();
+
+    /**
+     * Buffer holding bytes {@code first, first + 1, ...}
+     */
+    private PooledBuffer component(int first, int length) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) (first + i);
+        }
+        PooledBuffer buffer = PooledBuffer.wrap(bytes);
+        added.add(buffer);
+        return buffer;
+    }
+
+    /**
+     * Composite of components of 1, 2, ... {@code count} bytes holding bytes {@code 0, 1, ...}
+     */
+    private CompositeBuffer newComposite(int count) {
+        CompositeBuffer composite = new CompositeBuffer();
+        int index = 0;
+        for (int length = 1; length <= count; length++) {
+            composite.addComponent(component(index, length));
+            index += length;
+        }
+        return composite;
+    }
+
+    @Test
+    public void findsTheComponentOfEveryIndex() {
+        CompositeBuffer composite = newComposite(20);
+        assertEquals(20, composite.numComponents());
+        assertEquals(210, composite.writerIndex());
+        for (int i = 0; i < 210; i++) {
+            assertEquals((byte) i, composite.getByte(i));
+        }
+        assertEquals((byte) 100, composite.indexOf((byte) 100));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void rejectsIndexesBeyondWriterIndex() {
+        newComposite(3).getByte(6);
+    }
+
+    @Test
+    public void readsAcrossComponentBoundaries() {
+        CompositeBuffer composite = newComposite(4);
+        byte[] bytes = new byte[7];
+        composite.getBytes(2, bytes, 0, 7);
+        assertArrayEquals(new byte[]{2, 3, 4, 5, 6, 7, 8}, bytes);
+        assertEquals(0, composite.readerIndex());
+
+        composite.skipBytes(1);
+        byte[] read = new byte[5];
+        composite.readBytes(read);
+        assertArrayEquals(new byte[]{1, 2, 3, 4, 5}, read);
+        assertEquals(6, composite.readerIndex());
+        assertArrayEquals(new byte[]{6, 7, 8, 9}, composite.toByteArray());
+    }
+
+    @Test
+    public void nioBuffersCoverTheComponentsSpanned() {
+        CompositeBuffer composite = newComposite(4);
+        // components hold 0, 1-2, 3-5 and 6-9
+        ByteBuffer[] buffers = composite.nioBuffers(2, 6);
+        assertEquals(3, buffers.length);
+        assertEquals(1, buffers[0].remaining());
+        assertEquals(2, buffers[0].get(buffers[0].position()));
+        assertEquals(3, buffers[1].remaining());
+        assertEquals(3, buffers[1].get(buffers[1].position()));
+        assertEquals(2, buffers[2].remaining());
+        assertEquals(6, buffers[2].get(buffers[2].position()));
+
+        buffers = composite.nioBuffers(4, 1);
+        assertEquals(1, buffers.length);
+        assertEquals(4, buffers[0].get(buffers[0].position()));
+        assertEquals(0, composite.nioBuffers(10, 0).length);
+    }
+
+    @Test
+    public void retainedSliceOutlivesTheComposite() {
+        CompositeBuffer composite = newComposite(4);
+        CompositeBuffer slice = composite.retainedSlice(2, 6);
+        assertEquals(3, slice.numComponents());
+        assertArrayEquals(new byte[]{2, 3, 4, 5, 6, 7}, slice.toByteArray());
+
+        assertTrue(composite.release());
+        assertEquals(0, added.get(0).refCnt());
+        assertEquals(1, added.get(1).refCnt());
+        assertEquals(1, added.get(3).refCnt());
+        assertArrayEquals(new byte[]{2, 3, 4, 5, 6, 7}, slice.toByteArray());
+
+        assertTrue(slice.release());
+        for (PooledBuffer buffer : added) {
+            assertEquals(0, buffer.refCnt());
+        }
+    }
+
+    @Test
+    public void discardReadComponentsRebasesIndexes() {
+        CompositeBuffer composite = newComposite(4);
+        composite.readerIndex(4);
+        composite.discardReadComponents();
+
+        // 0 and 1-2 are fully read, 3-5 is not
+        assertEquals(2, composite.numComponents());
+        assertEquals(0, added.get(0).refCnt());
+        assertEquals(0, added.get(1).refCnt());
+        assertEquals(1, added.get(2).refCnt());
+        assertEquals(1, composite.readerIndex());
+        assertEquals(7, composite.writerIndex());
+        assertEquals(3, composite.getByte(0));
+        assertEquals(6, composite.getByte(3));
+        assertArrayEquals(new byte[]{4, 5, 6, 7, 8, 9}, composite.toByteArray());
+
+        composite.addComponent(component(10, 2));
+        assertEquals(9, composite.writerIndex());
+        assertEquals(11, composite.getByte(8));
+
+        composite.readerIndex(9);
+        composite.discardReadComponents();
+        assertEquals(0, composite.numComponents());
+        assertEquals(0, composite.readerIndex());
+        assertEquals(0, composite.writerIndex());
+    }
+
+    @Test
+    public void releasesComponentsOnceDeallocated() {
+        CompositeBuffer composite = newComposite(3);
+        composite.retain();
+        assertFalse(composite.release());
+        assertEquals(1, added.get(0).refCnt());
+        assertTrue(composite.release());
+        assertEquals(0, composite.refCnt());
+        for (PooledBuffer buffer : added) {
+            assertEquals(0, buffer.refCnt());
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void rejectsAccessOnceDeallocated() {
+        CompositeBuffer composite = newComposite(3);
+        composite.release();
+        composite.getByte(0);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void rejectsReleaseOnceDeallocated() {
+        CompositeBuffer composite = newComposite(3);
+        composite.release();
+        composite.release();
+    }
+}
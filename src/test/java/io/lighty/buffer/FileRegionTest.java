@@ -0,0 +1,189 @@
+package io.lighty.buffer;
+
+import io.lighty.AbstractHandler;
+import io.lighty.Bootstrap;
+import io.lighty.Channel;
+import io.lighty.ChannelFuture;
+import io.lighty.ChannelInitializer;
+import io.lighty.nio.NioEventLoopGroup;
+import io.lighty.nio.NioServerSocketChannel;
+import io.lighty.pipeline.HandlerContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class FileRegionTest {
+
+    private Path file;
+    private byte[] content;
+
+    @Before
+    public void setUp() throws IOException {
+        file = Files.createTempFile("lighty", ".bin");
+        content = new byte[8 * 1024 * 1024];
+        new Random(1).nextBytes(content);
+        Files.write(file, content);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.delete(file);
+    }
+
+    private FileRegion newRegion(long position, long count) throws IOException {
+        return new FileRegion(FileChannel.open(file, StandardOpenOption.READ), position, count);
+    }
+
+    @Test
+    public void partialTransfersAdvanceThePosition() throws IOException {
+        FileRegion region = newRegion(1000, 10000);
+        LimitedChannel target = new LimitedChannel();
+        target.limit = 3000;
+
+        assertEquals(3000, region.transferTo(target));
+        assertEquals(3000, region.transferred());
+        assertFalse(region.isDone());
+
+        target.limit = 0;
+        assertEquals(0, region.transferTo(target));
+        assertEquals(3000, region.transferred());
+
+        target.limit = 3000;
+        assertEquals(3000, region.transferTo(target));
+        target.limit = Integer.MAX_VALUE;
+        assertEquals(4000, region.transferTo(target));
+        assertTrue(region.isDone());
+        assertEquals(10000, region.transferred());
+        assertEquals(0, region.transferTo(target));
+
+        assertArrayEquals(Arrays.copyOfRange(content, 1000, 11000), target.bytes.toByteArray());
+        assertTrue(region.release());
+    }
+
+    @Test(expected = IOException.class)
+    public void failsOnceTheFileIsShorterThanTheRegion() throws IOException {
+        FileRegion region = newRegion(content.length - 100, 200);
+        try {
+            LimitedChannel target = new LimitedChannel();
+            assertEquals(100, region.transferTo(target));
+            region.transferTo(target);
+        } finally {
+            region.release();
+        }
+    }
+
+    @Test
+    public void zeroLengthRegionIsDone() throws IOException {
+        FileRegion region = newRegion(0, 0);
+        assertTrue(region.isDone());
+        assertEquals(0, region.transferTo(new LimitedChannel()));
+        assertTrue(region.release());
+    }
+
+    @Test
+    public void closesTheFileOnceDeallocated() throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        FileRegion region = new FileRegion(channel, 0, 10);
+        region.retain();
+        assertFalse(region.release());
+        assertTrue(channel.isOpen());
+        assertTrue(region.release());
+        assertFalse(channel.isOpen());
+        assertEquals(0, region.refCnt());
+
+        try {
+            region.transferTo(new LimitedChannel());
+            fail();
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    @Test(timeout = 30000)
+    public void writesRegionsLargerThanTheSendBufferOverLoopback() throws Exception {
+        FileRegion empty = newRegion(0, 0);
+        FileRegion region = newRegion(1000, content.length - 2000);
+        CompletableFuture<ChannelFuture> emptyWrite = new CompletableFuture<>();
+        CompletableFuture<ChannelFuture> regionWrite = new CompletableFuture<>();
+
+        Bootstrap bootstrap = new Bootstrap().channelClass(NioServerSocketChannel.class)
+                .group(new NioEventLoopGroup(1));
+        bootstrap.addChildHandler(new ChannelInitializer() {
+            @Override
+            protected void initialize(Channel channel) {
+                channel.pipeline().addLast(new AbstractHandler<Object, Object>() {
+                    @Override
+                    public void onOpen(HandlerContext context) {
+                        emptyWrite.complete(context.channel().write(empty));
+                        regionWrite.complete(context.channel().writeAndFlush(region));
+                    }
+                });
+            }
+        });
+        Channel server = bootstrap.bind(new InetSocketAddress("127.0.0.1", 0)).sync().channel();
+
+        try (Socket socket = new Socket()) {
+            socket.setReceiveBufferSize(16 * 1024);
+            socket.connect(server.getLocalAddress());
+            InputStream in = socket.getInputStream();
+            byte[] received = new byte[(int) region.count()];
+            int offset = 0;
+            int n;
+            while (offset < received.length && (n = in.read(received, offset, Math.min(4096, received.length - offset))) > 0) {
+                offset += n;
+            }
+
+            assertArrayEquals(Arrays.copyOfRange(content, 1000, content.length - 1000), received);
+            assertTrue(emptyWrite.get(10, TimeUnit.SECONDS).sync().isSuccess());
+            assertTrue(regionWrite.get(10, TimeUnit.SECONDS).sync().isSuccess());
+            assertTrue(region.isDone());
+            assertEquals(0, region.refCnt());
+            assertEquals(0, empty.refCnt());
+        } finally {
+            bootstrap.shutdownGracefully();
+        }
+    }
+
+    /**
+     * Channel taking at most {@code limit} bytes per write
+     */
+    private static final class LimitedChannel implements WritableByteChannel {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        int limit = Integer.MAX_VALUE;
+
+        @Override
+        public int write(ByteBuffer src) {
+            int length = Math.min(limit, src.remaining());
+            byte[] chunk = new byte[length];
+            src.get(chunk);
+            bytes.write(chunk, 0, length);
+            return length;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package io.lighty.concurrent;
+
+import io.lighty.nio.NioEventLoopGroup;
+import org.junit.Test;
+
+import java.nio.channels.spi.SelectorProvider;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+public class HashedWheelDelayedTaskQueueTest {
+
+    private static final long TICK = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long START = 1000 * TICK;
+
+    /**
+     * Wheel of 8 ticks of 1 millisecond
+     */
+    private static HashedWheelDelayedTaskQueue newQueue() {
+        return new HashedWheelDelayedTaskQueue(1, TimeUnit.MILLISECONDS, 8, START);
+    }
+
+    private static ScheduledTask<Object> newTask(HashedWheelDelayedTaskQueue queue, long ticks) {
+        return new ScheduledTask<>(null, () -> null, START + ticks * TICK, queue);
+    }
+
+    @Test
+    public void expiresTasksBeyondOneRevolutionOnTheirTick() {
+        HashedWheelDelayedTaskQueue queue = newQueue();
+        // same bucket, 0, 1 and 2 full rounds
+        ScheduledTask<Object> first = newTask(queue, 3);
+        ScheduledTask<Object> second = newTask(queue, 11);
+        ScheduledTask<Object> third = newTask(queue, 19);
+        queue.add(third);
+        queue.add(second);
+        queue.add(first);
+        assertEquals(3, queue.size());
+        assertEquals(2, third.rounds);
+        assertEquals(1, second.rounds);
+        assertEquals(0, first.rounds);
+
+        assertNull(queue.poll(START + 2 * TICK));
+        assertSame(first, queue.poll(START + 3 * TICK));
+        assertNull(queue.poll(START + 10 * TICK));
+        assertSame(second, queue.poll(START + 11 * TICK));
+        assertNull(queue.poll(START + 18 * TICK));
+        assertSame(third, queue.poll(START + 19 * TICK));
+        assertEquals(0, queue.size());
+        assertEquals(-1, queue.delayNanos(START + 19 * TICK));
+    }
+
+    @Test
+    public void roundsAreCountedFromTheCurrentTick() {
+        HashedWheelDelayedTaskQueue queue = newQueue();
+        assertNull(queue.poll(START + 5 * TICK));
+
+        // 12 ticks ahead of tick 6 wraps into bucket 2 once
+        ScheduledTask<Object> task = newTask(queue, 18);
+        queue.add(task);
+        assertEquals(1, task.rounds);
+        assertNull(queue.poll(START + 17 * TICK));
+        assertSame(task, queue.poll(START + 18 * TICK));
+    }
+
+    @Test
+    public void tasksDueBeforeTheCurrentTickExpireRightAway() {
+        HashedWheelDelayedTaskQueue queue = newQueue();
+        assertNull(queue.poll(START + 5 * TICK));
+
+        ScheduledTask<Object> task = newTask(queue, 2);
+        queue.add(task);
+        assertNull(task.bucket);
+        assertEquals(0, queue.delayNanos(START + 5 * TICK));
+        assertSame(task, queue.poll(START + 5 * TICK));
+    }
+
+    @Test
+    public void delayFollowsAddsCancelsAndExpiries() {
+        HashedWheelDelayedTaskQueue queue = newQueue();
+        assertEquals(-1, queue.delayNanos(START));
+
+        ScheduledTask<Object> late = newTask(queue, 20);
+        queue.add(late);
+        // the bucket of tick 20 is first visited on tick 4, rounds are checked there
+        assertEquals(4 * TICK, queue.delayNanos(START));
+
+        ScheduledTask<Object> early = newTask(queue, 2);
+        queue.add(early);
+        assertEquals(2 * TICK, queue.delayNanos(START));
+        assertEquals(TICK, queue.delayNanos(START + TICK));
+
+        queue.remove(early);
+        assertNull(early.bucket);
+        assertEquals(4 * TICK, queue.delayNanos(START));
+
+        assertNull(queue.poll(START + 4 * TICK));
+        assertEquals(8 * TICK, queue.delayNanos(START + 4 * TICK));
+        assertNull(queue.poll(START + 12 * TICK));
+        assertEquals(8 * TICK, queue.delayNanos(START + 12 * TICK));
+        assertSame(late, queue.poll(START + 20 * TICK));
+        assertEquals(-1, queue.delayNanos(START + 20 * TICK));
+    }
+
+    @Test
+    public void removeKeepsOtherTasksOfTheBucket() {
+        HashedWheelDelayedTaskQueue queue = newQueue();
+        ScheduledTask<Object> a = newTask(queue, 3);
+        ScheduledTask<Object> b = newTask(queue, 3);
+        ScheduledTask<Object> c = newTask(queue, 3);
+        queue.add(a);
+        queue.add(b);
+        queue.add(c);
+
+        queue.remove(b);
+        assertEquals(2, queue.size());
+        assertEquals(3 * TICK, queue.delayNanos(START));
+        queue.remove(a);
+        assertEquals(3 * TICK, queue.delayNanos(START));
+
+        assertSame(c, queue.poll(START + 3 * TICK));
+        assertNull(queue.poll(START + 3 * TICK));
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void cancelAllEmptiesTheWheel() {
+        HashedWheelDelayedTaskQueue queue = newQueue();
+        ScheduledTask<Object> task = newTask(queue, 30);
+        queue.add(task);
+        queue.add(newTask(queue, 5));
+        assertEquals(5 * TICK, queue.delayNanos(START));
+
+        queue.cancelAll();
+        assertTrue(task.isCancelled());
+        assertEquals(0, queue.size());
+        assertEquals(-1, queue.delayNanos(START));
+    }
+
+    @Test(timeout = 10000)
+    public void cancelFromAnotherThreadUnlinksTheTask() throws Exception {
+        NioEventLoopGroup group = new NioEventLoopGroup(1, new DefaultThreadFactory("wheel-test"), SelectorProvider.provider(),
+                Integer.MAX_VALUE, RejectedTaskHandlers.reject(), () -> DelayedTaskQueue.newHashedWheel(1, TimeUnit.MILLISECONDS, 8));
+        try {
+            AbstractEventExecutor executor = (AbstractEventExecutor) group.next();
+            // the event loop may keep tasks of its own scheduled
+            int own = executor.submit(executor::pendingTasks).get();
+            AtomicBoolean ran = new AtomicBoolean();
+            ScheduledFuture<?> cancelled = executor.schedule(() -> ran.set(true), 50, TimeUnit.MILLISECONDS);
+            ScheduledFuture<?> kept = executor.schedule(() -> {
+            }, 1, TimeUnit.HOURS);
+            assertEquals(Integer.valueOf(own + 2), executor.submit(executor::pendingTasks).get());
+
+            assertTrue(cancelled.cancel(false));
+            assertEquals(Integer.valueOf(own + 1), executor.submit(executor::pendingTasks).get());
+
+            Thread.sleep(100);
+            assertFalse(ran.get());
+            assertFalse(kept.isDone());
+            kept.cancel(false);
+            assertEquals(Integer.valueOf(own), executor.submit(executor::pendingTasks).get());
+        } finally {
+            group.shutdown();
+        }
+    }
+}
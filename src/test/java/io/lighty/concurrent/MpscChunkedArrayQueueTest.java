@@ -0,0 +1,179 @@
+package io.lighty.concurrent;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class MpscChunkedArrayQueueTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsZeroCapacity() {
+        new MpscChunkedArrayQueue<>(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsTooSmallChunk() {
+        new MpscChunkedArrayQueue<>(16, 1);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void rejectsNull() {
+        new MpscChunkedArrayQueue<>(16).offer(null);
+    }
+
+    @Test
+    public void pollsInOrderAcrossChunks() {
+        MpscChunkedArrayQueue<Integer> queue = new MpscChunkedArrayQueue<>(1000, 4);
+        int next = 0;
+        // interleaved so the consumer follows producers over many chunk links
+        for (int i = 0; i < 100; i++) {
+            for (int j = 0; j < 7; j++) {
+                assertTrue(queue.offer(i * 7 + j));
+            }
+            for (int j = 0; j < 5; j++) {
+                assertEquals(Integer.valueOf(next++), queue.poll());
+            }
+        }
+        while (!queue.isEmpty()) {
+            assertEquals(Integer.valueOf(next), queue.peek());
+            assertEquals(Integer.valueOf(next++), queue.poll());
+        }
+        assertEquals(700, next);
+        assertNull(queue.poll());
+        assertNull(queue.peek());
+    }
+
+    @Test
+    public void rejectsOffersWhenFull() {
+        MpscChunkedArrayQueue<Integer> queue = new MpscChunkedArrayQueue<>(5, 2);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(queue.offer(i));
+        }
+        assertFalse(queue.offer(5));
+        assertEquals(5, queue.size());
+
+        assertEquals(Integer.valueOf(0), queue.poll());
+        assertTrue(queue.offer(5));
+        assertFalse(queue.offer(6));
+        assertEquals(5, queue.size());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void addThrowsWhenFull() {
+        MpscChunkedArrayQueue<Integer> queue = new MpscChunkedArrayQueue<>(1);
+        queue.add(0);
+        queue.add(1);
+    }
+
+    @Test
+    public void iteratesPendingElements() {
+        MpscChunkedArrayQueue<Integer> queue = new MpscChunkedArrayQueue<>(100, 4);
+        for (int i = 0; i < 10; i++) {
+            queue.offer(i);
+        }
+        queue.poll();
+        queue.poll();
+        queue.poll();
+
+        List<Integer> elements = new ArrayList<>();
+        for (Integer e : queue) {
+            elements.add(e);
+        }
+        assertEquals(Arrays.asList(3, 4, 5, 6, 7, 8, 9), elements);
+        assertTrue(queue.contains(9));
+        assertFalse(queue.contains(2));
+    }
+
+    @Test
+    public void iteratorSkipsElementsPolledMeanwhile() {
+        MpscChunkedArrayQueue<Integer> queue = new MpscChunkedArrayQueue<>(100, 4);
+        for (int i = 0; i < 10; i++) {
+            queue.offer(i);
+        }
+
+        Iterator<Integer> iterator = queue.iterator();
+        assertEquals(Integer.valueOf(0), iterator.next());
+        for (int i = 0; i < 6; i++) {
+            queue.poll();
+        }
+        queue.offer(10);
+
+        List<Integer> rest = new ArrayList<>();
+        while (iterator.hasNext()) {
+            rest.add(iterator.next());
+        }
+        // element 1 was read ahead, elements offered after creation are not visited
+        assertEquals(Arrays.asList(1, 6, 7, 8, 9), rest);
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void exhaustedIteratorThrows() {
+        MpscChunkedArrayQueue<Integer> queue = new MpscChunkedArrayQueue<>(4);
+        queue.offer(0);
+        Iterator<Integer> iterator = queue.iterator();
+        iterator.next();
+        iterator.next();
+    }
+
+    @Test(timeout = 30000)
+    public void concurrentProducersKeepPerProducerOrder() throws Exception {
+        int producers = 4;
+        int perProducer = 200000;
+        // small capacity and chunks so producers hit the bound and race on chunk linking
+        MpscChunkedArrayQueue<long[]> queue = new MpscChunkedArrayQueue<>(64, 8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger rejected = new AtomicInteger();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            long producer = p;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (long i = 0; i < perProducer; i++) {
+                    long[] e = {producer, i};
+                    while (!queue.offer(e)) {
+                        rejected.incrementAndGet();
+                        Thread.yield();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        start.countDown();
+        long[] expected = new long[producers];
+        for (int received = 0; received < producers * perProducer; ) {
+            long[] e = queue.poll();
+            if (e == null) {
+                Thread.yield();
+                continue;
+            }
+            assertEquals("order of producer " + e[0], expected[(int) e[0]]++, e[1]);
+            assertTrue(queue.size() <= queue.capacity());
+            received++;
+        }
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+
+        assertTrue(queue.isEmpty());
+        assertTrue("producers never saw a full queue", rejected.get() > 0);
+        for (long count : expected) {
+            assertEquals(perProducer, count);
+        }
+    }
+}
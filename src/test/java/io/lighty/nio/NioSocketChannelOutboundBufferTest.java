@@ -0,0 +1,111 @@
+package io.lighty.nio;
+
+import io.lighty.ChannelException;
+import io.lighty.DefaultChannelPromise;
+import io.lighty.buffer.CompositeBuffer;
+import io.lighty.buffer.FileRegion;
+import io.lighty.buffer.PooledBuffer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.Assert.*;
+
+public class NioSocketChannelOutboundBufferTest {
+
+    private NioSocketChannel channel;
+    private NioSocketChannelOutboundBuffer buffer;
+    private final ByteBuffer[] nioBuffers = new ByteBuffer[NioEventLoop.IOV_MAX];
+
+    @Before
+    public void setUp() {
+        channel = new NioSocketChannel();
+        buffer = new NioSocketChannelOutboundBuffer(channel);
+    }
+
+    @After
+    public void tearDown() {
+        buffer.clear(new ChannelException("closed"));
+        channel.unsafe().closeForcibly();
+    }
+
+    private void add(Object message) {
+        buffer.addMessage(message, new DefaultChannelPromise(channel));
+    }
+
+    private static PooledBuffer wrap(int b) {
+        return PooledBuffer.wrap(new byte[]{(byte) b});
+    }
+
+    @Test
+    public void stopsAtIovMax() {
+        for (int i = 0; i < NioEventLoop.IOV_MAX + 10; i++) {
+            add(wrap(i));
+        }
+
+        assertEquals(NioEventLoop.IOV_MAX, buffer.nioBuffers(nioBuffers));
+        for (int i = 0; i < NioEventLoop.IOV_MAX; i++) {
+            assertEquals((byte) i, nioBuffers[i].get(0));
+        }
+    }
+
+    @Test
+    public void cutsCompositeAtIovMax() {
+        for (int i = 0; i < NioEventLoop.IOV_MAX - 1; i++) {
+            add(wrap(i));
+        }
+        CompositeBuffer composite = new CompositeBuffer().addComponent(wrap(1)).addComponent(wrap(2)).addComponent(wrap(3));
+        add(composite);
+
+        assertEquals(NioEventLoop.IOV_MAX, buffer.nioBuffers(nioBuffers));
+        assertEquals(1, nioBuffers[NioEventLoop.IOV_MAX - 1].get(0));
+
+        // the rest of the composite follows once the messages before it are written
+        buffer.removeBytes(NioEventLoop.IOV_MAX);
+        assertSame(composite, buffer.current());
+        nioBuffers[NioEventLoop.IOV_MAX - 1].position(1);
+        assertEquals(2, buffer.nioBuffers(nioBuffers));
+        assertEquals(2, nioBuffers[0].get(0));
+        assertEquals(3, nioBuffers[1].get(0));
+    }
+
+    @Test
+    public void skipsWrittenComponents() {
+        CompositeBuffer composite = new CompositeBuffer().addComponent(wrap(1)).addComponent(wrap(2));
+        add(composite);
+        assertEquals(2, buffer.nioBuffers(nioBuffers));
+
+        nioBuffers[0].position(1);
+        assertEquals(1, buffer.nioBuffers(nioBuffers));
+        assertEquals(2, nioBuffers[0].get(0));
+    }
+
+    @Test
+    public void stopsAtFileRegion() throws IOException {
+        Path file = Files.createTempFile("lighty", ".bin");
+        try {
+            Files.write(file, new byte[16]);
+            add(wrap(1));
+            add(wrap(2));
+            add(new FileRegion(FileChannel.open(file, StandardOpenOption.READ), 0, 16));
+            add(wrap(3));
+
+            assertEquals(2, buffer.nioBuffers(nioBuffers));
+            assertEquals(19, buffer.pendingBytes());
+
+            buffer.removeBytes(2);
+            assertTrue(buffer.current() instanceof FileRegion);
+            assertEquals(0, buffer.nioBuffers(nioBuffers));
+        } finally {
+            buffer.clear(new ChannelException("closed"));
+            Files.delete(file);
+        }
+    }
+}